@@ -3,9 +3,11 @@ package com.universidad;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-//@EnableCaching
+@EnableCaching
+@EnableScheduling
 public class UniversidadApplication {
     public static void main(String[] args) {
         SpringApplication.run(UniversidadApplication.class, args);
@@ -0,0 +1,169 @@
+package com.universidad.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache de una entidad que se busca por su ID y por claves naturales (código, número de inscripción...).
+ * El valor se guarda una sola vez, bajo {@code id:<id>}; cada clave secundaria guarda solo el ID
+ * ({@code codigo:MAT-101 -> 5}). Así una actualización refresca todas las búsquedas a la vez, no hay
+ * copias duplicadas y las claves de distintas dimensiones no pueden chocar.
+ * Al leer por una clave secundaria se comprueba que el valor siga teniendo esa clave: un índice
+ * obsoleto (p. ej. tras cambiar el código) se trata como un fallo y nunca devuelve otra entidad.
+ * No se guardan resultados vacíos, para que una alta posterior no quede oculta.
+ * Las escrituras en el cache (guardar e invalidar) se aplican al confirmarse la transacción en curso, si la hay:
+ * un cambio revertido no llega al cache y una lectura concurrente no puede volver a cachear la fila anterior
+ * después de la invalidación. Sin transacción activa se aplican en el momento.
+ */
+public class CacheIndexado<V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheIndexado.class);
+
+    private final Cache cache;
+    private final Function<V, Long> id;
+    private final Map<DimensionCache, Function<V, ?>> dimensiones = new EnumMap<>(DimensionCache.class);
+
+    public CacheIndexado(Cache cache, Function<V, Long> id) {
+        this.cache = cache;
+        this.id = id;
+    }
+
+    /**
+     * Agrega una clave secundaria por la que también se busca el valor (solo al configurar el cache).
+     */
+    public CacheIndexado<V> indexadoPor(DimensionCache dimension, Function<V, ?> extractor) {
+        dimensiones.put(dimension, extractor);
+        return this;
+    }
+
+    /**
+     * Devuelve el valor con el ID dado, cargándolo (y guardándolo en todas sus dimensiones) si no está.
+     */
+    public V obtenerPorId(Long idBuscado, Supplier<V> cargador) {
+        V cacheado = leer(ClaveCache.id(idBuscado));
+        return cacheado != null ? cacheado : cargarYGuardar(cargador);
+    }
+
+    /**
+     * Devuelve el valor con la clave secundaria dada, resolviendo primero su ID en el cache.
+     */
+    public V obtenerPor(DimensionCache dimension, Object valor, Supplier<V> cargador) {
+        Function<V, ?> extractor = extractor(dimension);
+        Object idCacheado = leer(new ClaveCache(dimension, valor));
+        if (idCacheado instanceof Long idEncontrado) {
+            V cacheado = leer(ClaveCache.id(idEncontrado));
+            if (cacheado != null && Objects.equals(valor, extractor.apply(cacheado))) {
+                return cacheado;
+            }
+        }
+        return cargarYGuardar(cargador);
+    }
+
+    /**
+     * Guarda el valor bajo su ID y sus claves secundarias, descartando las claves secundarias
+     * que tenía la versión anterior y que ya no le corresponden.
+     */
+    public void guardar(V valor) {
+        if (valor == null) {
+            return;
+        }
+        trasCommit(() -> guardarAhora(valor));
+    }
+
+    /**
+     * Descarta el valor con el ID dado y todas sus claves secundarias conocidas.
+     */
+    public void invalidar(Long idInvalidado) {
+        trasCommit(() -> invalidarAhora(idInvalidado));
+    }
+
+    private void guardarAhora(V valor) {
+        try {
+            V anterior = leer(ClaveCache.id(id.apply(valor)));
+            if (anterior != null) {
+                dimensiones.forEach((dimension, extractor) -> {
+                    Object clave = extractor.apply(anterior);
+                    if (clave != null && !clave.equals(extractor.apply(valor))) {
+                        cache.evict(new ClaveCache(dimension, clave));
+                    }
+                });
+            }
+            cache.put(ClaveCache.id(id.apply(valor)), valor);
+            dimensiones.forEach((dimension, extractor) -> {
+                Object clave = extractor.apply(valor);
+                if (clave != null) {
+                    cache.put(new ClaveCache(dimension, clave), id.apply(valor));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Si falla a medias, las lecturas validan el índice y las entradas expiran por su tiempo de vida
+            logger.warn("Error al guardar en el cache {}: {}", cache.getName(), e.getMessage());
+        }
+    }
+
+    private void invalidarAhora(Long idInvalidado) {
+        try {
+            V anterior = leer(ClaveCache.id(idInvalidado));
+            if (anterior != null) {
+                dimensiones.forEach((dimension, extractor) -> {
+                    Object clave = extractor.apply(anterior);
+                    if (clave != null) {
+                        cache.evict(new ClaveCache(dimension, clave));
+                    }
+                });
+            }
+            cache.evict(ClaveCache.id(idInvalidado));
+        } catch (RuntimeException e) {
+            logger.warn("Error al invalidar {} en el cache {}: {}", idInvalidado, cache.getName(), e.getMessage());
+        }
+    }
+
+    // Mismo criterio que InscripcionServiceImpl.invalidarListasTrasCommit
+    private static void trasCommit(Runnable escritura) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            escritura.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escritura.run();
+            }
+        });
+    }
+
+    private V cargarYGuardar(Supplier<V> cargador) {
+        V cargado = cargador.get();
+        guardar(cargado);
+        return cargado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T leer(ClaveCache clave) {
+        try {
+            Cache.ValueWrapper wrapper = cache.get(clave);
+            return wrapper != null ? (T) wrapper.get() : null;
+        } catch (RuntimeException e) {
+            // Un fallo de Redis se trata como un fallo de cache: se consulta la base de datos
+            logger.warn("Error al leer del cache {} (clave {}): {}", cache.getName(), clave, e.getMessage());
+            return null;
+        }
+    }
+
+    private Function<V, ?> extractor(DimensionCache dimension) {
+        Function<V, ?> extractor = dimensiones.get(dimension);
+        if (extractor == null) {
+            throw new IllegalArgumentException("El cache " + cache.getName() + " no se indexa por " + dimension);
+        }
+        return extractor;
+    }
+}
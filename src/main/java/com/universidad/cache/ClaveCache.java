@@ -0,0 +1,20 @@
+package com.universidad.cache;
+
+import java.io.Serializable;
+
+/**
+ * Clave tipada de un cache de entidades: dimensión de búsqueda y valor buscado.
+ * Se representa como {@code <prefijo>:<valor>} (p. ej. {@code id:5} o {@code codigo:MAT-101}),
+ * que es también la clave usada en el L1 y en Redis.
+ */
+public record ClaveCache(DimensionCache dimension, Object valor) implements Serializable {
+
+    public static ClaveCache id(Long id) {
+        return new ClaveCache(DimensionCache.ID, id);
+    }
+
+    @Override
+    public String toString() {
+        return dimension.getPrefijo() + ":" + valor;
+    }
+}
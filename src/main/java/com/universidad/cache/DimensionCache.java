@@ -0,0 +1,22 @@
+package com.universidad.cache;
+
+/**
+ * Dimensiones de búsqueda de las entidades cacheadas. Cada una aporta el prefijo de sus claves,
+ * de modo que un ID y un código con el mismo texto nunca comparten entrada en el cache.
+ */
+public enum DimensionCache {
+    ID("id"),
+    CODIGO_MATERIA("codigo"),
+    NUMERO_INSCRIPCION("numeroInscripcion"),
+    NRO_EMPLEADO("nroEmpleado");
+
+    private final String prefijo;
+
+    DimensionCache(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public String getPrefijo() {
+        return prefijo;
+    }
+}
@@ -0,0 +1,13 @@
+package com.universidad.cache;
+
+/**
+ * Formatos en que se guardan los valores de un cache en Redis.
+ */
+public enum FormatoSerializacion {
+    /** Serialización estándar de Java (incluye los descriptores de clase en cada valor). */
+    JDK,
+    /** JSON binario (Smile): más compacto y rápido de leer y escribir que JDK o JSON de texto. */
+    SMILE,
+    /** Smile comprimido con LZ4 cuando el valor supera el umbral de compresión (listas y páginas grandes). */
+    SMILE_LZ4
+}
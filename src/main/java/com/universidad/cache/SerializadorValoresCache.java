@@ -0,0 +1,163 @@
+package com.universidad.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Serializador de los valores de un cache en Redis, con el formato configurado para ese cache.
+ * Los valores Smile llevan un byte inicial que indica cómo se escribieron (y, si van comprimidos, el
+ * tamaño original); los de JDK se escriben sin cambios. Al leer se reconoce el formato por ese primer
+ * byte, así que cambiar el formato de un cache no invalida las entradas ya guardadas.
+ * Registra el tamaño de cada valor ({@code cache.redis.valor.bytes}) y el tiempo de serializar y
+ * deserializar ({@code cache.redis.serializacion}) por cache y formato, para comparar formatos.
+ */
+public class SerializadorValoresCache implements RedisSerializer<Object> {
+
+    // Primer byte de los valores no JDK (un flujo JDK siempre empieza con 0xAC)
+    private static final byte MARCA_NULO = 0x00;
+    private static final byte MARCA_SMILE = 0x01;
+    private static final byte MARCA_SMILE_LZ4 = 0x02;
+    private static final byte[] VALOR_NULO = {MARCA_NULO};
+
+    // Únicos tipos del JDK que aparecen en los valores cacheados (listas, páginas e IDs de las claves
+    // secundarias). Se comparan por clase exacta: ni paquetes completos ni subclases. Si un DTO cacheado
+    // incorpora otro tipo del JDK hay que agregarlo aquí, o sus entradas no se podrán leer
+    private static final Set<Class<?>> TIPOS_JDK_PERMITIDOS = Set.of(
+            ArrayList.class, Long.class, Integer.class, String.class, LocalDate.class);
+
+    // Compartidos por todos los caches: ObjectMapper y LZ4 son seguros entre hilos
+    private static final ObjectMapper SMILE = crearMapperSmile();
+    private static final LZ4Compressor COMPRESOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor DESCOMPRESOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final FormatoSerializacion formato;
+    private final int umbralCompresion;
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final DistributionSummary tamano;
+    private final Timer tiempoSerializar;
+    private final Timer tiempoDeserializar;
+
+    public SerializadorValoresCache(String cacheName, FormatoSerializacion formato, int umbralCompresion,
+                                    MeterRegistry meterRegistry) {
+        this.formato = formato;
+        this.umbralCompresion = umbralCompresion;
+        String etiquetaFormato = formato.name().toLowerCase();
+        this.tamano = DistributionSummary.builder("cache.redis.valor.bytes")
+                .baseUnit("bytes")
+                .tags("cache", cacheName, "formato", etiquetaFormato)
+                .register(meterRegistry);
+        this.tiempoSerializar = Timer.builder("cache.redis.serializacion")
+                .tags("cache", cacheName, "formato", etiquetaFormato, "operacion", "serializar")
+                .register(meterRegistry);
+        this.tiempoDeserializar = Timer.builder("cache.redis.serializacion")
+                .tags("cache", cacheName, "formato", etiquetaFormato, "operacion", "deserializar")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        long inicio = System.nanoTime();
+        byte[] bytes = formato == FormatoSerializacion.JDK ? jdk.serialize(valor) : serializarSmile(valor);
+        tiempoSerializar.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        if (bytes != null) {
+            tamano.record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        long inicio = System.nanoTime();
+        try {
+            return switch (bytes[0]) {
+                case MARCA_NULO -> NullValue.INSTANCE;
+                case MARCA_SMILE -> SMILE.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case MARCA_SMILE_LZ4 -> {
+                    int tamanoOriginal = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] smile = new byte[tamanoOriginal];
+                    DESCOMPRESOR.decompress(bytes, 1 + Integer.BYTES, smile, 0, tamanoOriginal);
+                    yield SMILE.readValue(smile, Object.class);
+                }
+                default -> jdk.deserialize(bytes);
+            };
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("No se pudo deserializar el valor del cache", e);
+        } finally {
+            tiempoDeserializar.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] serializarSmile(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (valor instanceof NullValue) {
+            return VALOR_NULO;
+        }
+        byte[] smile;
+        try {
+            smile = SMILE.writeValueAsBytes(valor);
+        } catch (IOException e) {
+            throw new SerializationException("No se pudo serializar el valor del cache", e);
+        }
+        if (formato == FormatoSerializacion.SMILE_LZ4 && smile.length >= umbralCompresion) {
+            // Marca + tamaño original + bloque LZ4
+            byte[] salida = new byte[1 + Integer.BYTES + COMPRESOR.maxCompressedLength(smile.length)];
+            salida[0] = MARCA_SMILE_LZ4;
+            ByteBuffer.wrap(salida, 1, Integer.BYTES).putInt(smile.length);
+            int comprimido = COMPRESOR.compress(smile, 0, smile.length, salida, 1 + Integer.BYTES);
+            return Arrays.copyOf(salida, 1 + Integer.BYTES + comprimido);
+        }
+        byte[] salida = new byte[smile.length + 1];
+        salida[0] = MARCA_SMILE;
+        System.arraycopy(smile, 0, salida, 1, smile.length);
+        return salida;
+    }
+
+    // Cada valor lleva el tipo de cada objeto (incluidos Long y las colecciones) para reconstruirlo igual
+    // que con JDK; al leer solo se aceptan los DTO de la aplicación y los tipos del JDK de la lista
+    private static ObjectMapper crearMapperSmile() {
+        ObjectMapper mapper = new ObjectMapper(new SmileFactory());
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.universidad.dto.")
+                        .allowIfSubType(new BasicPolymorphicTypeValidator.TypeMatcher() {
+                            @Override
+                            public boolean match(MapperConfig<?> config, Class<?> clazz) {
+                                return TIPOS_JDK_PERMITIDOS.contains(clazz);
+                            }
+                        })
+                        .build(),
+                ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        return mapper;
+    }
+}
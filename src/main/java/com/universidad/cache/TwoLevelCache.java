@@ -0,0 +1,122 @@
+package com.universidad.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Cache de dos niveles: un L1 local en memoria (Caffeine) delante de un L2 compartido (Redis).
+ * Las lecturas consultan primero el L1 y, si no está, el L2 (promoviendo el valor al L1).
+ * Las escrituras y evicciones se aplican en ambos niveles y se notifican a los demás nodos
+ * para que descarten su copia local.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local; // L1 del nodo
+    private final Cache remote; // L2 compartido (Redis)
+    private final TwoLevelCacheManager manager; // Publica las invalidaciones hacia los demás nodos
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local,
+                         Cache remote, TwoLevelCacheManager manager) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, Object> getLocalCache() {
+        return local;
+    }
+
+    public Cache getRemoteCache() {
+        return remote;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object storeValue = toStoreValue(wrapper.get());
+        local.put(localKey, storeValue); // Promueve el valor del L2 al L1
+        return storeValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Caffeine garantiza que solo un hilo por clave consulte Redis o ejecute el método cacheado
+        Object storeValue = local.get(localKey(key), k -> {
+            ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null) {
+                return toStoreValue(wrapper.get());
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            remote.put(key, value);
+            return toStoreValue(value);
+        });
+        return (T) fromStoreValue(storeValue);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // El L1 se actualiza primero: si Redis falla, este nodo no se queda con un valor obsoleto
+        local.put(localKey(key), toStoreValue(value));
+        remote.put(key, value);
+        manager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(localKey(key));
+        remote.evict(key);
+        manager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote.clear();
+        manager.publishInvalidation(name, null);
+    }
+
+    // Invalida solo el L1 de este nodo (usado al recibir una notificación de otro nodo)
+    void evictLocal(Object localKey) {
+        local.invalidate(localKey);
+    }
+
+    // Vacía solo el L1 de este nodo (usado al recibir una notificación de otro nodo)
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    // Las claves del L1 se normalizan a String, igual que en Redis, para que las
+    // invalidaciones recibidas por pub/sub coincidan con la clave original (Long, String, SimpleKey...)
+    static Object localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,111 @@
+package com.universidad.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * CacheManager que combina un cache local por nodo (Caffeine) con el cache compartido de Redis.
+ * Además publica y escucha en un canal pub/sub de Redis las invalidaciones, de forma que una
+ * escritura en un nodo descarta las copias locales obsoletas en el resto de nodos.
+ * Cada cache publica sus métricas de aciertos y fallos por nivel ({@code cache.gets} con las
+ * etiquetas {@code cache}, {@code nivel} = l1/l2 y {@code result} = hit/miss).
+ */
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    // Separador de los campos del mensaje de invalidación: nodo, cache y clave
+    private static final String SEPARADOR = "\u001F";
+    // Marca usada en lugar de la clave cuando se vacía el cache completo
+    private static final String TODAS_LAS_CLAVES = "\u0000*";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final TwoLevelCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString(); // Identifica los mensajes propios de este nodo
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                                TwoLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::crearCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache crearCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> local = Caffeine.newBuilder()
+                .maximumSize(properties.getLocal().getMaximumSize())
+                .expireAfterWrite(properties.localTtlFor(name))
+                .recordStats()
+                .build();
+        RedisCache remote = (RedisCache) redisCacheManager.getCache(name);
+        // Los caches se crean al primer uso, así que sus métricas se registran aquí y no al arrancar.
+        // El L2 solo se consulta cuando falla el L1: la tasa de aciertos total es (hits l1 + hits l2) / gets l1
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "nivel", "l1");
+        new RedisCacheMetrics(remote, Tags.of("nivel", "l2")).bindTo(meterRegistry);
+        return new TwoLevelCache(name, local, remote, this);
+    }
+
+    // Notifica a los demás nodos que deben descartar la clave (o todo el cache si la clave es null)
+    void publishInvalidation(String cacheName, Object localKey) {
+        String clave = localKey != null ? localKey.toString() : TODAS_LAS_CLAVES;
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationTopic(),
+                    nodeId + SEPARADOR + cacheName + SEPARADOR + clave);
+        } catch (RuntimeException e) {
+            // Si Redis no está disponible el L1 remoto expira solo por su tiempo de vida
+            logger.warn("No se pudo publicar la invalidación del cache {}: {}", cacheName, e.getMessage());
+        }
+    }
+
+    // Recibe las invalidaciones publicadas por otros nodos y las aplica sobre el L1 local
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] partes = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARADOR, 3);
+        if (partes.length != 3 || nodeId.equals(partes[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(partes[1]);
+        if (cache == null) {
+            return;
+        }
+        if (TODAS_LAS_CLAVES.equals(partes[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(partes[2]);
+        }
+    }
+}
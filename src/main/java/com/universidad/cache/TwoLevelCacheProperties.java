@@ -0,0 +1,68 @@
+package com.universidad.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+/**
+ * Propiedades del cache en dos niveles (prefijo {@code app.cache}).
+ * Permite configurar el L1 local, el L2 en Redis y el tiempo de vida de cada cache por nombre.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class TwoLevelCacheProperties {
+
+    /** Configuración del cache local (L1) de cada nodo. */
+    private Local local = new Local();
+
+    /** Configuración del cache compartido (L2) en Redis. */
+    private Redis redis = new Redis();
+
+    /** Canal pub/sub de Redis por el que se propagan las invalidaciones del L1. */
+    private String invalidationTopic = "universidad:cache:invalidation";
+
+    /** Tiempo de vida por nombre de cache; si un cache no aparece se usan los valores por defecto. */
+    private Map<String, Duration> ttl = new HashMap<>();
+
+    /** Formato de los valores en Redis por nombre de cache; si un cache no aparece se usa el formato por defecto. */
+    private Map<String, FormatoSerializacion> formato = new HashMap<>();
+
+    @Data
+    public static class Local {
+        /** Número máximo de entradas por cache local. */
+        private long maximumSize = 10_000;
+        /** Tiempo de vida máximo de una entrada en el cache local. */
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Redis {
+        /** Tiempo de vida por defecto de una entrada en Redis. */
+        private Duration timeToLive = Duration.ofMinutes(10);
+        /** Formato por defecto de los valores en Redis. */
+        private FormatoSerializacion formato = FormatoSerializacion.JDK;
+        /** Tamaño en bytes a partir del cual el formato SMILE_LZ4 comprime el valor. */
+        private int umbralCompresion = 2048;
+    }
+
+    // Tiempo de vida en Redis para el cache indicado
+    public Duration redisTtlFor(String cacheName) {
+        return ttl.getOrDefault(cacheName, redis.getTimeToLive());
+    }
+
+    // Formato de los valores en Redis para el cache indicado
+    public FormatoSerializacion formatoFor(String cacheName) {
+        return formato.getOrDefault(cacheName, redis.getFormato());
+    }
+
+    // Tiempo de vida en el L1 para el cache indicado: nunca mayor que el valor por defecto del L1,
+    // así una invalidación perdida entre nodos se corrige sola en poco tiempo
+    public Duration localTtlFor(String cacheName) {
+        Duration cacheTtl = redisTtlFor(cacheName);
+        return cacheTtl.compareTo(local.getTimeToLive()) < 0 ? cacheTtl : local.getTimeToLive();
+    }
+}
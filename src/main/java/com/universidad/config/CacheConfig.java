@@ -0,0 +1,133 @@
+package com.universidad.config;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import com.universidad.cache.CacheIndexado;
+import com.universidad.cache.DimensionCache;
+import com.universidad.cache.SerializadorValoresCache;
+import com.universidad.cache.TwoLevelCacheManager;
+import com.universidad.cache.TwoLevelCacheProperties;
+import com.universidad.dto.DocenteDTO;
+import com.universidad.dto.EstudianteDTO;
+import com.universidad.dto.MateriaDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración del cache de la aplicación: L1 local (Caffeine) por nodo y L2 compartido (Redis),
+ * con tiempos de vida por cache e invalidación del L1 entre nodos mediante pub/sub de Redis.
+ */
+@Configuration
+@EnableConfigurationProperties(TwoLevelCacheProperties.class)
+public class CacheConfig implements CachingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate redisTemplate,
+                                             TwoLevelCacheProperties properties,
+                                             MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(properties.getRedis().getTimeToLive())
+                .serializeValuesWith(SerializationPair.fromSerializer(new SerializadorValoresCache("default",
+                        properties.getRedis().getFormato(), properties.getRedis().getUmbralCompresion(), meterRegistry)));
+
+        // Cada cache con tiempo de vida o formato propio recibe su configuración en Redis
+        Set<String> nombres = new HashSet<>(properties.getTtl().keySet());
+        nombres.addAll(properties.getFormato().keySet());
+        Map<String, RedisCacheConfiguration> configuraciones = new HashMap<>();
+        for (String nombre : nombres) {
+            configuraciones.put(nombre, defaultConfig
+                    .entryTtl(properties.redisTtlFor(nombre))
+                    .serializeValuesWith(SerializationPair.fromSerializer(new SerializadorValoresCache(nombre,
+                            properties.formatoFor(nombre), properties.getRedis().getUmbralCompresion(), meterRegistry))));
+        }
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(configuraciones)
+                .enableStatistics() // Aciertos y fallos del L2, expuestos como métricas
+                .build();
+        redisCacheManager.afterPropertiesSet(); // No es un bean: se inicializa aquí
+
+        return new TwoLevelCacheManager(redisCacheManager, redisTemplate, properties, meterRegistry);
+    }
+
+    // Caches de entidades buscadas por ID y por su clave natural: cada entidad se guarda una vez bajo su ID
+    // y las claves secundarias apuntan a él (ver CacheIndexado)
+    @Bean
+    public CacheIndexado<MateriaDTO> cacheMateria(CacheManager cacheManager) {
+        return new CacheIndexado<MateriaDTO>(cacheManager.getCache("materia"), MateriaDTO::getId)
+                .indexadoPor(DimensionCache.CODIGO_MATERIA, MateriaDTO::getCodigoUnico);
+    }
+
+    @Bean
+    public CacheIndexado<EstudianteDTO> cacheEstudiante(CacheManager cacheManager) {
+        return new CacheIndexado<EstudianteDTO>(cacheManager.getCache("estudiante"), EstudianteDTO::getId)
+                .indexadoPor(DimensionCache.NUMERO_INSCRIPCION, EstudianteDTO::getNumeroInscripcion);
+    }
+
+    @Bean
+    public CacheIndexado<DocenteDTO> cacheDocente(CacheManager cacheManager) {
+        return new CacheIndexado<DocenteDTO>(cacheManager.getCache("docente"), DocenteDTO::getId)
+                .indexadoPor(DimensionCache.NRO_EMPLEADO, DocenteDTO::getNroEmpleado);
+    }
+
+    // Contenedor que escucha el canal de invalidaciones y las aplica sobre el L1 de este nodo
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager,
+                                                                            TwoLevelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(properties.getInvalidationTopic()));
+        return container;
+    }
+
+    // Un fallo de Redis no debe tumbar la petición: se registra y se trata como un fallo de cache
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new CacheErrorHandler() {
+            @Override
+            public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+                logger.warn("Error al leer del cache {} (clave {}): {}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+                logger.warn("Error al escribir en el cache {} (clave {}): {}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+                logger.warn("Error al invalidar el cache {} (clave {}): {}", cache.getName(), key, exception.getMessage());
+            }
+
+            @Override
+            public void handleCacheClearError(RuntimeException exception, Cache cache) {
+                logger.warn("Error al vaciar el cache {}: {}", cache.getName(), exception.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.universidad.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.universidad.persistencia.InstrumentacionHibernate;
+import com.universidad.persistencia.MedidorJdbc;
+
+/**
+ * Instrumentación de Hibernate: cuenta las sentencias y entidades cargadas y mide el tiempo JDBC
+ * de cada petición (ver MetricasPersistenciaFilter). Reemplaza a spring.jpa.show-sql.
+ */
+@Configuration
+public class PersistenciaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer instrumentacionHibernate() {
+        InstrumentacionHibernate instrumentacion = new InstrumentacionHibernate();
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, instrumentacion);
+            properties.put(AvailableSettings.INTERCEPTOR, instrumentacion);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, MedidorJdbc.class.getName());
+        };
+    }
+}
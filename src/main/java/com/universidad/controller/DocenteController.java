@@ -13,9 +13,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.universidad.dto.DocenteDTO;
+import com.universidad.dto.PaginaDTO;
 import com.universidad.service.IDocenteService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,6 +39,17 @@ public class DocenteController {
         return ResponseEntity.ok(docentes);
     }
 
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener docentes paginados por cursor", description = "Requiere rol ADMIN o DOCENTE. Filtro opcional por departamento")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
+    public ResponseEntity<PaginaDTO<DocenteDTO>> obtenerPaginaDocentes(
+            @RequestParam(required = false) Long after,
+            @RequestParam(name = "limit", defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite,
+            @RequestParam(required = false) String departamento) {
+        PaginaDTO<DocenteDTO> pagina = docenteService.obtenerPaginaDocentes(after, limite, departamento);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener docente por ID", description = "Requiere rol ADMIN o DOCENTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
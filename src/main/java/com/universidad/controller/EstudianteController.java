@@ -1,13 +1,16 @@
 package com.universidad.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,13 +18,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.universidad.dto.EstudianteDTO;
+import com.universidad.dto.ImportacionEstudiantesDTO;
+import com.universidad.dto.PaginaDTO;
 import com.universidad.model.Estudiante;
 import com.universidad.model.Materia;
 import com.universidad.service.IEstudianteService;
+import com.universidad.service.IExportacionService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -35,41 +43,60 @@ import jakarta.validation.Valid;
 public class EstudianteController {
 
     private final IEstudianteService estudianteService;
-    private static final Logger logger = LoggerFactory.getLogger(EstudianteController.class);
+    private final IExportacionService exportacionService;
 
     @Autowired
-    public EstudianteController(IEstudianteService estudianteService) {
+    public EstudianteController(IEstudianteService estudianteService, IExportacionService exportacionService) {
         this.estudianteService = estudianteService;
+        this.exportacionService = exportacionService;
     }
 
     @GetMapping
     @Operation(summary = "Obtener todos los estudiantes", description = "Requiere rol ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<EstudianteDTO>> obtenerTodosLosEstudiantes() {
-        long inicio = System.currentTimeMillis();
-        logger.info("[ESTUDIANTE] Inicio obtenerTodosLosEstudiantes: {}", inicio);
         List<EstudianteDTO> estudiantes = estudianteService.obtenerTodosLosEstudiantes();
-        long fin = System.currentTimeMillis();
-        logger.info("[ESTUDIANTE] Fin obtenerTodosLosEstudiantes: {} (Duracion: {} ms)", fin, (fin-inicio));
         return ResponseEntity.ok(estudiantes);
     }
 
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener estudiantes paginados por cursor", description = "Requiere rol ADMIN. Filtro opcional por estado")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaDTO<EstudianteDTO>> obtenerPaginaEstudiantes(
+        @RequestParam(required = false) Long after,
+        @RequestParam(name = "limit", defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite,
+        @RequestParam(required = false) String estado) {
+        PaginaDTO<EstudianteDTO> pagina = estudianteService.obtenerPaginaEstudiantes(after, limite, estado);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar estudiantes", description = "Requiere rol ADMIN. Formato ndjson o csv, filtro opcional por estado. La respuesta se genera en streaming")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarEstudiantes(
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) String estado) {
+        // El formato se valida antes de empezar a escribir la respuesta
+        IExportacionService.Formato formato = IExportacionService.Formato.desde(format);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarEstudiantes(formato, estado, salida);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(formato.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"estudiantes." + formato.getExtension() + "\"")
+            .body(cuerpo);
+    }
+
     @GetMapping("/inscripcion/{numeroInscripcion}")
     @Operation(summary = "Obtener estudiante por número de inscripción", description = "Requiere rol ADMIN o DOCENTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
     public ResponseEntity<EstudianteDTO> obtenerEstudiantePorNumeroInscripcion(
         @PathVariable String numeroInscripcion) {
-        long inicio = System.currentTimeMillis();
-        logger.info("[ESTUDIANTE] Inicio obtenerEstudiantePorNumeroInscripcion: {}", inicio);
         EstudianteDTO estudiante = estudianteService.obtenerEstudiantePorNumeroInscripcion(numeroInscripcion);
-        long fin = System.currentTimeMillis();
-        logger.info("[ESTUDIANTE] Fin obtenerEstudiantePorNumeroInscripcion: {} (Duracion: {} ms)", fin, (fin-inicio));
         return ResponseEntity.ok(estudiante);
     }
 
     @GetMapping("/{id}/materias")
     @Operation(summary = "Obtener materias de un estudiante", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE (solo propias)")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or (hasRole('ESTUDIANTE') and #estudianteId == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, #estudianteId))")
     public ResponseEntity<List<Materia>> obtenerMateriasDeEstudiante(
         @PathVariable("id") Long estudianteId) {
         List<Materia> materias = estudianteService.obtenerMateriasDeEstudiante(estudianteId);
@@ -95,11 +122,25 @@ public class EstudianteController {
         return ResponseEntity.status(201).body(nuevoEstudiante);
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Importar estudiantes en bloque", description = "Requiere rol ADMIN. El cuerpo es un archivo CSV (con cabecera) o NDJSON según 'format'. Responde 201 si se importaron todas las filas o 207 con el detalle de las rechazadas")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ImportacionEstudiantesDTO> importarEstudiantes(
+        @RequestParam(defaultValue = "ndjson") String format,
+        InputStream cuerpo,
+        Authentication authentication) throws IOException {
+        IExportacionService.Formato formato = IExportacionService.Formato.desde(format);
+        ImportacionEstudiantesDTO resultado = estudianteService.importarEstudiantes(formato, cuerpo, authentication.getName());
+        // 201 si todas las filas se importaron; 207 si hubo rechazos (el detalle va en 'errores')
+        HttpStatus estado = resultado.getRechazados() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(estado).body(resultado);
+    }
+
     @PutMapping("/{id}")
     @Transactional
     @ResponseStatus(HttpStatus.OK)
     @Operation(summary = "Actualizar estudiante", description = "Requiere rol ADMIN o ESTUDIANTE (solo propio)")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and #id == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, #id))")
     public ResponseEntity<EstudianteDTO> actualizarEstudiante(
         @PathVariable Long id,
         @RequestBody EstudianteDTO estudianteDTO) {
@@ -37,7 +37,7 @@ public class EvaluacionDocenteController {
 
     @GetMapping("/docente/{docenteId}")
     @Operation(summary = "Obtener evaluaciones por docente", description = "Requiere rol ADMIN o DOCENTE (solo propias)")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCENTE') and #docenteId == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCENTE') and @autorizacion.esDocente(authentication, #docenteId))")
     public ResponseEntity<List<EvaluacionDocente>> obtenerEvaluacionesPorDocente(@PathVariable Long docenteId) {
         List<EvaluacionDocente> evaluaciones = evaluacionDocenteService.obtenerEvaluacionesPorDocente(docenteId);
         return ResponseEntity.ok(evaluaciones);
@@ -45,7 +45,7 @@ public class EvaluacionDocenteController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener evaluación por ID", description = "Requiere rol ADMIN o DOCENTE (solo propias)")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCENTE') and @evaluacionDocenteService.obtenerEvaluacionPorId(#id).docente.id == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCENTE') and @autorizacion.esDocenteDeEvaluacion(authentication, #id))")
     public ResponseEntity<EvaluacionDocente> obtenerEvaluacionPorId(@PathVariable Long id) {
         EvaluacionDocente evaluacion = evaluacionDocenteService.obtenerEvaluacionPorId(id);
         if (evaluacion == null) {
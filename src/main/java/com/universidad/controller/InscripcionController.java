@@ -1,9 +1,13 @@
 package com.universidad.controller;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,8 +19,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.InscripcionLoteResultadoDTO;
+import com.universidad.dto.PaginaDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+import com.universidad.service.IColaInscripcionService;
+import com.universidad.service.IExportacionService;
 import com.universidad.service.IInscripcionService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,9 +37,18 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @SecurityRequirement(name = "bearerAuth")
 public class InscripcionController {
 
+    // Tiempo máximo que una consulta puede esperar el resultado de una solicitud encolada
+    private static final long MAX_ESPERA_MS = 30000;
+
     @Autowired
     private IInscripcionService inscripcionService;
 
+    @Autowired
+    private IColaInscripcionService colaInscripcionService;
+
+    @Autowired
+    private IExportacionService exportacionService;
+
     @GetMapping
     @Operation(summary = "Obtener todas las inscripciones", description = "Requiere rol ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
@@ -38,6 +57,33 @@ public class InscripcionController {
         return ResponseEntity.ok(inscripciones);
     }
 
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener inscripciones paginadas por cursor", description = "Requiere rol ADMIN. Filtros opcionales por estado y período académico")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaDTO<InscripcionDTO>> obtenerPaginaInscripciones(
+            @RequestParam(required = false) Long after,
+            @RequestParam(name = "limit", defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String periodoAcademico) {
+        PaginaDTO<InscripcionDTO> pagina = inscripcionService.obtenerPaginaInscripciones(after, limite, estado, periodoAcademico);
+        return ResponseEntity.ok(pagina);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar inscripciones", description = "Requiere rol ADMIN. Formato ndjson o csv, filtro opcional por período académico. La respuesta se genera en streaming")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportarInscripciones(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String periodo) {
+        // El formato se valida antes de empezar a escribir la respuesta
+        IExportacionService.Formato formato = IExportacionService.Formato.desde(format);
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportarInscripciones(formato, periodo, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inscripciones." + formato.getExtension() + "\"")
+                .body(cuerpo);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener inscripción por ID", description = "Requiere rol ADMIN o DOCENTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
@@ -51,7 +97,7 @@ public class InscripcionController {
 
     @GetMapping("/estudiante/{estudianteId}")
     @Operation(summary = "Obtener inscripciones por estudiante", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE (solo propias)")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or (hasRole('ESTUDIANTE') and #estudianteId == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, #estudianteId))")
     public ResponseEntity<List<InscripcionDTO>> obtenerInscripcionesPorEstudiante(@PathVariable Long estudianteId) {
         List<InscripcionDTO> inscripciones = inscripcionService.obtenerInscripcionesPorEstudiante(estudianteId);
         return ResponseEntity.ok(inscripciones);
@@ -67,12 +113,48 @@ public class InscripcionController {
 
     @PostMapping
     @Operation(summary = "Crear nueva inscripción", description = "Requiere rol ADMIN o ESTUDIANTE (solo propias)")
-    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and #inscripcionDTO.estudianteId == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, #inscripcionDTO.estudianteId))")
     public ResponseEntity<InscripcionDTO> crearInscripcion(@RequestBody InscripcionDTO inscripcionDTO) {
         InscripcionDTO nuevaInscripcion = inscripcionService.crearInscripcion(inscripcionDTO);
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevaInscripcion);
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Crear varias inscripciones en una sola operación", description = "Requiere rol ADMIN o ESTUDIANTE (solo propias)")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudianteDeTodas(authentication, #inscripcionesDTO))")
+    public ResponseEntity<List<InscripcionLoteResultadoDTO>> crearInscripcionesEnLote(@RequestBody List<InscripcionDTO> inscripcionesDTO) {
+        List<InscripcionLoteResultadoDTO> resultados = inscripcionService.crearInscripcionesEnLote(inscripcionesDTO);
+        // 201 si todas se crearon; 207 si hubo rechazos parciales (el detalle va en cada elemento)
+        boolean todasExitosas = resultados.stream().allMatch(InscripcionLoteResultadoDTO::isExitoso);
+        return ResponseEntity.status(todasExitosas ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(resultados);
+    }
+
+    @PostMapping("/cola")
+    @Operation(summary = "Encolar una solicitud de inscripción", description = "Requiere rol ADMIN o ESTUDIANTE (solo propias). Responde 202 con un ticket para consultar el resultado")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, #inscripcionDTO.estudianteId))")
+    public ResponseEntity<SolicitudInscripcionDTO> encolarInscripcion(@RequestBody InscripcionDTO inscripcionDTO) {
+        SolicitudInscripcionDTO solicitud = colaInscripcionService.encolarInscripcion(inscripcionDTO);
+        if (solicitud == null) {
+            // Cola llena: el cliente debe reintentar más tarde
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/inscripciones/cola/" + solicitud.getTicket()))
+                .body(solicitud);
+    }
+
+    @GetMapping("/cola/{ticket}")
+    @Operation(summary = "Consultar una solicitud de inscripción encolada", description = "Requiere rol ADMIN o ESTUDIANTE (solo propias). Con esperaMs > 0 espera hasta que la solicitud termine o venza el plazo")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('ESTUDIANTE') and @autorizacion.esEstudiante(authentication, @colaInscripcionServiceImpl.obtenerEstudianteSolicitud(#ticket)))")
+    public CompletableFuture<ResponseEntity<SolicitudInscripcionDTO>> consultarSolicitud(
+            @PathVariable String ticket,
+            @RequestParam(defaultValue = "0") long esperaMs) {
+        return colaInscripcionService.consultarSolicitud(ticket, Math.min(esperaMs, MAX_ESPERA_MS))
+                .thenApply(solicitud -> solicitud == null
+                        ? ResponseEntity.notFound().<SolicitudInscripcionDTO>build()
+                        : ResponseEntity.ok(solicitud));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Actualizar inscripción", description = "Requiere rol ADMIN o DOCENTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE')")
@@ -1,9 +1,8 @@
 package com.universidad.controller;
 
 import java.util.List;
+import java.util.Map;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -15,15 +14,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.universidad.dto.InscripcionDTO;
 import com.universidad.dto.MateriaDTO;
-import com.universidad.model.Materia;
+import com.universidad.dto.PaginaDTO;
+import com.universidad.service.IInscripcionService;
 import com.universidad.service.IMateriaService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
-import jakarta.transaction.Transactional;
 
 @RestController
 @RequestMapping("/api/materias")
@@ -31,34 +32,37 @@ import jakarta.transaction.Transactional;
 public class MateriaController {
 
     private final IMateriaService materiaService;
-    private static final Logger logger = LoggerFactory.getLogger(MateriaController.class);
+    private final IInscripcionService inscripcionService;
 
     @Autowired
-    public MateriaController(IMateriaService materiaService) {
+    public MateriaController(IMateriaService materiaService, IInscripcionService inscripcionService) {
         this.materiaService = materiaService;
+        this.inscripcionService = inscripcionService;
     }
 
     @GetMapping
     @Operation(summary = "Obtener todas las materias", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or hasRole('ESTUDIANTE')")
     public ResponseEntity<List<MateriaDTO>> obtenerTodasLasMaterias() {
-        long inicio = System.currentTimeMillis();
-        logger.info("[MATERIA] Inicio obtenerTodasLasMaterias: {}", inicio);
         List<MateriaDTO> result = materiaService.obtenerTodasLasMaterias();
-        long fin = System.currentTimeMillis();
-        logger.info("[MATERIA] Fin obtenerTodasLasMaterias: {} (Duracion: {} ms)", fin, (fin-inicio));
         return ResponseEntity.ok(result);
     }
 
+    @GetMapping("/pagina")
+    @Operation(summary = "Obtener materias paginadas por cursor", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE. Para la página siguiente se envía el valor 'siguiente' como 'after'")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or hasRole('ESTUDIANTE')")
+    public ResponseEntity<PaginaDTO<MateriaDTO>> obtenerPaginaMaterias(
+            @RequestParam(required = false) Long after,
+            @RequestParam(name = "limit", defaultValue = "" + PaginaDTO.LIMITE_POR_DEFECTO) int limite) {
+        PaginaDTO<MateriaDTO> pagina = materiaService.obtenerPaginaMaterias(after, limite);
+        return ResponseEntity.ok(pagina);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener materia por ID", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or hasRole('ESTUDIANTE')")
     public ResponseEntity<MateriaDTO> obtenerMateriaPorId(@PathVariable Long id) {
-        long inicio = System.currentTimeMillis();
-        logger.info("[MATERIA] Inicio obtenerMateriaPorId: {}", inicio);
         MateriaDTO materia = materiaService.obtenerMateriaPorId(id);
-        long fin = System.currentTimeMillis();
-        logger.info("[MATERIA] Fin obtenerMateriaPorId: {} (Duracion: {} ms)", fin, (fin-inicio));
         if (materia == null) {
             return ResponseEntity.notFound().build();
         }
@@ -100,8 +104,41 @@ public class MateriaController {
         return ResponseEntity.noContent().build();
     }
 
+    @PutMapping("/{id}/calificaciones")
+    @Operation(summary = "Registrar calificaciones de la materia en bloque", description = "Requiere rol ADMIN, o DOCENTE asignado a la materia. Recibe un mapa inscripcionId -> calificación (0 a 100) de inscripciones activas; se aplican todas o ninguna")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('DOCENTE') and @autorizacion.esDocenteDeMateria(authentication, #id))")
+    public ResponseEntity<List<InscripcionDTO>> registrarCalificaciones(@PathVariable Long id,
+                                                                        @RequestBody Map<Long, Integer> calificaciones) {
+        List<InscripcionDTO> inscripciones = inscripcionService.registrarCalificaciones(id, calificaciones);
+        if (inscripciones == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(inscripciones);
+    }
+
+    @GetMapping("/{id}/cierre-prerequisitos")
+    @Operation(summary = "Obtener todos los prerequisitos (directos e indirectos) de una materia", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or hasRole('ESTUDIANTE')")
+    public ResponseEntity<List<Long>> obtenerCierrePrerequisitos(@PathVariable Long id) {
+        List<Long> prerequisitos = materiaService.obtenerCierrePrerequisitos(id);
+        if (prerequisitos == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(prerequisitos);
+    }
+
+    @GetMapping("/{id}/desbloquea")
+    @Operation(summary = "Obtener las materias que se desbloquean (directa o indirectamente) al aprobar una materia", description = "Requiere rol ADMIN, DOCENTE o ESTUDIANTE")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DOCENTE') or hasRole('ESTUDIANTE')")
+    public ResponseEntity<List<Long>> obtenerMateriasDesbloqueadas(@PathVariable Long id) {
+        List<Long> materias = materiaService.obtenerMateriasDesbloqueadas(id);
+        if (materias == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(materias);
+    }
+
     @GetMapping("/formaria-circulo/{materiaId}/{prerequisitoId}")
-    @Transactional
     @Operation(summary = "Verificar si materia formaría círculo con prerequisito", description = "Requiere rol ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Boolean> formariaCirculo(@PathVariable Long materiaId, @PathVariable Long prerequisitoId) {
@@ -109,8 +146,7 @@ public class MateriaController {
         if (materiaDTO == null) {
             return ResponseEntity.notFound().build();
         }
-        Materia materia = new Materia(materiaDTO.getId(), materiaDTO.getNombreMateria(), materiaDTO.getCodigoUnico());
-        boolean circulo = materia.formariaCirculo(prerequisitoId);
+        boolean circulo = materiaService.formariaCirculo(materiaId, prerequisitoId);
         if (circulo) {
             return ResponseEntity.badRequest().body(circulo);
         }
@@ -1,5 +1,6 @@
 package com.universidad.dto;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -12,7 +13,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class DocenteDTO {
+public class DocenteDTO implements Serializable {
     private Long id;
     private String nombre;
     private String apellido;
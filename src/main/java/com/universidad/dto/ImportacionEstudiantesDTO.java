@@ -0,0 +1,37 @@
+package com.universidad.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de una importación masiva de estudiantes, con el detalle de las filas rechazadas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacionEstudiantesDTO implements Serializable {
+    private int totalFilas;
+    private int importados;
+    private int rechazados;
+    private List<ErrorFila> errores;
+
+    /**
+     * Fila rechazada: número de línea en el archivo, datos que la identifican y motivo.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ErrorFila implements Serializable {
+        private long fila;
+        private String numeroInscripcion;
+        private String email;
+        private String error;
+    }
+}
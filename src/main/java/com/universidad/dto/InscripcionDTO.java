@@ -1,5 +1,6 @@
 package com.universidad.dto;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
 import lombok.AllArgsConstructor;
@@ -11,7 +12,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class InscripcionDTO {
+public class InscripcionDTO implements Serializable {
     private Long id;
     private Long estudianteId;
     private Long materiaId;
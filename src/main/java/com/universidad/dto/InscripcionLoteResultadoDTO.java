@@ -0,0 +1,24 @@
+package com.universidad.dto;
+
+import java.io.Serializable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultado de cada elemento de una inscripción en lote: la inscripción creada o el motivo del rechazo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InscripcionLoteResultadoDTO implements Serializable {
+    private int indice; // Posición del elemento en la lista recibida
+    private Long estudianteId;
+    private Long materiaId;
+    private boolean exitoso;
+    private InscripcionDTO inscripcion; // Inscripción creada (solo si fue exitosa)
+    private String error; // Motivo del rechazo (solo si falló)
+}
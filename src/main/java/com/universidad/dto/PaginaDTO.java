@@ -0,0 +1,51 @@
+package com.universidad.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de un listado con paginación por cursor (keyset).
+ * Para pedir la página siguiente se envía {@code siguiente} como parámetro {@code after};
+ * cuando {@code siguiente} es null no hay más elementos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaDTO<T extends Serializable> implements Serializable {
+
+    public static final int LIMITE_POR_DEFECTO = 50;
+    public static final int LIMITE_MAXIMO = 500;
+
+    private List<T> elementos;
+    private Integer limite;
+    private Long siguiente; // ID del último elemento de la página, o null si es la última
+
+    /**
+     * Verifica que el tamaño de página pedido esté entre 1 y LIMITE_MAXIMO.
+     * @throws IllegalArgumentException si el límite está fuera de rango.
+     */
+    public static void validarLimite(int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_MAXIMO);
+        }
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con limite + 1: la fila extra solo indica
+     * que existe una página siguiente y no se devuelve.
+     */
+    public static <T extends Serializable> PaginaDTO<T> de(List<T> filas, int limite, Function<T, Long> id) {
+        boolean hayMas = filas.size() > limite;
+        List<T> elementos = new ArrayList<>(hayMas ? filas.subList(0, limite) : filas);
+        Long siguiente = hayMas ? id.apply(elementos.get(elementos.size() - 1)) : null;
+        return new PaginaDTO<>(elementos, limite, siguiente);
+    }
+}
@@ -0,0 +1,27 @@
+package com.universidad.dto;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado de una solicitud de inscripción recibida por la cola asíncrona.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SolicitudInscripcionDTO implements Serializable {
+    private String ticket; // Identificador con el que el cliente consulta el resultado
+    private String estado; // "pendiente", "procesando", "completada", "rechazada"
+    private Long estudianteId;
+    private Long materiaId;
+    private LocalDateTime fechaSolicitud;
+    private LocalDateTime fechaProceso;
+    private InscripcionDTO inscripcion; // Inscripción creada (solo si fue completada)
+    private String error; // Motivo del rechazo (solo si fue rechazada)
+}
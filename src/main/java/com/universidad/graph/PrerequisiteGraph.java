@@ -0,0 +1,425 @@
+package com.universidad.graph;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.universidad.cache.TwoLevelCacheProperties;
+import com.universidad.repository.MateriaRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Índice en memoria del grafo de prerequisitos entre materias.
+ * Carga la tabla {@code materia_prerequisito} con una sola consulta y la guarda como un arreglo
+ * de BitSet (uno por materia, indexado por posición), de modo que las preguntas
+ * "¿tiene aprobados todos los prerequisitos?" y "¿esta arista formaría un ciclo?"
+ * se responden con operaciones de bits, sin recorrer colecciones perezosas de JPA.
+ * En cada carga se precalcula además el cierre transitivo en ambos sentidos (todo lo que hay que
+ * aprobar antes de una materia y todo lo que una materia desbloquea), así esas consultas no
+ * dependen de la profundidad del plan de estudios.
+ * Cada nodo tiene su propia copia: los cambios se anuncian en el canal de invalidación del cache
+ * (el mismo por el que TwoLevelCacheManager avisa a los demás nodos) para que todos recarguen.
+ */
+@Component
+public class PrerequisiteGraph implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrerequisiteGraph.class);
+
+    // Campos del mensaje: nodo, destino y operación, con el mismo separador que las invalidaciones del cache.
+    // El destino no es el nombre de ningún cache, así que TwoLevelCacheManager ignora estos mensajes
+    private static final String SEPARADOR = "\u001F";
+    private static final String DESTINO = "grafo-prerequisitos";
+    private static final String RECARGAR = "recargar";
+    private static final String AGREGAR = "agregar:";
+    private static final String ELIMINAR = "eliminar:";
+
+    @Autowired
+    private MateriaRepository materiaRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private TwoLevelCacheProperties cacheProperties;
+
+    private final String nodeId = UUID.randomUUID().toString(); // Identifica los mensajes propios de este nodo
+
+    // Instantánea inmutable del grafo; se reemplaza completa en cada recarga
+    private volatile Snapshot snapshot;
+
+    // Serializa las recargas y las actualizaciones puntuales. Es un ReentrantLock y no synchronized porque la recarga
+    // consulta la base de datos: un hilo virtual bloqueado en JDBC dentro de synchronized retiene su hilo portador (Java 21)
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    /**
+     * Indica si la materia tiene al menos un prerequisito directo.
+     */
+    public boolean tienePrerequisitos(Long materiaId) {
+        Snapshot actual = snapshot();
+        Integer indice = actual.indices.get(materiaId);
+        return indice != null && !actual.prerequisitos[indice].isEmpty();
+    }
+
+    /**
+     * Verifica si todos los prerequisitos directos de la materia están entre las materias aprobadas.
+     * @param materiaId ID de la materia a cursar
+     * @param materiasAprobadas IDs de las materias aprobadas por el estudiante
+     */
+    public boolean prerequisitosAprobados(Long materiaId, Collection<Long> materiasAprobadas) {
+        Snapshot actual = snapshot();
+        Integer indice = actual.indices.get(materiaId);
+        if (indice == null || actual.prerequisitos[indice].isEmpty()) {
+            return true;
+        }
+        BitSet faltantes = (BitSet) actual.prerequisitos[indice].clone();
+        faltantes.andNot(actual.aBitSet(materiasAprobadas));
+        return faltantes.isEmpty();
+    }
+
+    /**
+     * Verifica si agregar {@code prerequisitoId} como prerequisito de {@code materiaId} formaría un ciclo,
+     * es decir, si {@code materiaId} ya es (directa o indirectamente) prerequisito de {@code prerequisitoId}.
+     */
+    public boolean formariaCiclo(Long materiaId, Long prerequisitoId) {
+        if (materiaId == null || prerequisitoId == null) return false;
+        if (materiaId.equals(prerequisitoId)) return true;
+        Snapshot actual = snapshot();
+        Integer origen = actual.indices.get(prerequisitoId);
+        Integer objetivo = actual.indices.get(materiaId);
+        if (origen == null || objetivo == null) return false;
+        return actual.cierre[origen].get(objetivo);
+    }
+
+    /**
+     * Todas las materias que deben aprobarse (directa o indirectamente) antes de cursar la materia.
+     * @return IDs de las materias, o null si la materia no existe
+     */
+    public List<Long> cierrePrerequisitos(Long materiaId) {
+        Snapshot actual = snapshot();
+        Integer indice = actual.indices.get(materiaId);
+        return indice != null ? actual.aIds(actual.cierre[indice]) : null;
+    }
+
+    /**
+     * Todas las materias que la materia desbloquea (directa o indirectamente) al aprobarla.
+     * @return IDs de las materias, o null si la materia no existe
+     */
+    public List<Long> desbloquea(Long materiaId) {
+        Snapshot actual = snapshot();
+        Integer indice = actual.indices.get(materiaId);
+        return indice != null ? actual.aIds(actual.desbloquea[indice]) : null;
+    }
+
+    /**
+     * Recarga el grafo en este nodo y pide a los demás que también lo recarguen. Debe llamarse cuando
+     * cambian los prerequisitos de una materia, una vez confirmado el cambio en la base de datos
+     * (el alta y la baja de materias usan agregarMateria y eliminarMateria).
+     */
+    public void recargarEnTodosLosNodos() {
+        recargar();
+        publicar(RECARGAR);
+    }
+
+    /**
+     * Vuelve a cargar el grafo desde la base de datos en este nodo. Se ejecuta al arrancar, al recibir el
+     * aviso de otro nodo y de forma periódica, para recoger también los cambios hechos fuera de la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.prerequisitos.refresco-ms:300000}", initialDelayString = "${app.prerequisitos.refresco-ms:300000}")
+    public void recargar() {
+        recarga.lock();
+        try {
+            cargar();
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    private void cargar() {
+        List<Long> ids = materiaRepository.findAllIds();
+        List<Object[]> aristas = materiaRepository.findAllPrerequisitoPairs();
+
+        Map<Long, Integer> indices = new HashMap<>(ids.size() * 2);
+        long[] idsPorIndice = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            indices.put(ids.get(i), i);
+            idsPorIndice[i] = ids.get(i);
+        }
+
+        BitSet[] prerequisitos = new BitSet[ids.size()];
+        for (int i = 0; i < prerequisitos.length; i++) {
+            prerequisitos[i] = new BitSet();
+        }
+        for (Object[] arista : aristas) {
+            Integer materia = indices.get(((Number) arista[0]).longValue());
+            Integer prerequisito = indices.get(((Number) arista[1]).longValue());
+            if (materia != null && prerequisito != null) {
+                prerequisitos[materia].set(prerequisito);
+            }
+        }
+
+        this.snapshot = new Snapshot(indices, idsPorIndice, prerequisitos);
+        logger.info("Grafo de prerequisitos cargado: {} materias, {} aristas", ids.size(), aristas.size());
+    }
+
+    /**
+     * Incorpora una materia nueva al grafo sin consultar la base de datos, en este nodo y en los demás.
+     * Una materia recién creada no tiene prerequisitos ni dependientes, así que el cierre de las demás
+     * no cambia: solo se agrega su posición.
+     */
+    public void agregarMateria(Long materiaId) {
+        incorporar(materiaId);
+        publicar(AGREGAR + materiaId);
+    }
+
+    /**
+     * Quita una materia eliminada del grafo, en este nodo y en los demás. Si no tenía prerequisitos ni
+     * dependientes basta con olvidar su posición; si tenía aristas, el cierre de las materias que dependían
+     * de ella cambia y se recarga el grafo.
+     */
+    public void eliminarMateria(Long materiaId) {
+        quitar(materiaId);
+        publicar(ELIMINAR + materiaId);
+    }
+
+    // Con el mismo candado que las recargas, para que una actualización puntual no se pierda bajo una recarga en curso
+    private void incorporar(Long materiaId) {
+        recarga.lock();
+        try {
+            Snapshot actual = snapshot;
+            // Sin grafo cargado no hay nada que actualizar: la primera consulta lo carga completo
+            if (actual != null && !actual.indices.containsKey(materiaId)) {
+                this.snapshot = actual.conMateria(materiaId);
+            }
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    private void quitar(Long materiaId) {
+        recarga.lock();
+        try {
+            Snapshot actual = snapshot;
+            Integer indice = actual != null ? actual.indices.get(materiaId) : null;
+            if (indice == null) {
+                return;
+            }
+            if (actual.prerequisitos[indice].isEmpty() && actual.desbloquea[indice].isEmpty()) {
+                this.snapshot = actual.sinMateria(materiaId);
+            } else {
+                cargar();
+            }
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    @PostConstruct
+    void suscribir() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(cacheProperties.getInvalidationTopic()));
+    }
+
+    private void publicar(String operacion) {
+        try {
+            redisTemplate.convertAndSend(cacheProperties.getInvalidationTopic(),
+                    nodeId + SEPARADOR + DESTINO + SEPARADOR + operacion);
+        } catch (RuntimeException e) {
+            // Si Redis no está disponible los demás nodos recogen el cambio en la recarga periódica
+            logger.warn("No se pudo publicar el cambio del grafo de prerequisitos: {}", e.getMessage());
+        }
+    }
+
+    // Recibe los cambios publicados por otros nodos; las invalidaciones del cache llegan por el mismo canal y se ignoran
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] partes = new String(message.getBody(), StandardCharsets.UTF_8).split(SEPARADOR, 3);
+        if (partes.length != 3 || nodeId.equals(partes[0]) || !DESTINO.equals(partes[1])) {
+            return;
+        }
+        String operacion = partes[2];
+        if (operacion.startsWith(AGREGAR)) {
+            incorporar(Long.valueOf(operacion.substring(AGREGAR.length())));
+        } else if (operacion.startsWith(ELIMINAR)) {
+            quitar(Long.valueOf(operacion.substring(ELIMINAR.length())));
+        } else if (RECARGAR.equals(operacion)) {
+            recargar();
+        }
+    }
+
+    private Snapshot snapshot() {
+        Snapshot actual = snapshot;
+        if (actual == null) {
+            recargar();
+            actual = snapshot;
+        }
+        return actual;
+    }
+
+    // Estructura compacta del grafo: ID de materia -> posición, y un BitSet de prerequisitos directos por posición
+    static final class Snapshot {
+        final Map<Long, Integer> indices;
+        final long[] ids;
+        final BitSet[] prerequisitos;
+
+        final BitSet[] cierre; // Prerequisitos directos e indirectos de cada materia
+        final BitSet[] desbloquea; // Materias que dependen directa o indirectamente de cada materia
+
+        Snapshot(Map<Long, Integer> indices, long[] ids, BitSet[] prerequisitos) {
+            this.indices = indices;
+            this.ids = ids;
+            this.prerequisitos = prerequisitos;
+            this.cierre = calcularCierre();
+            this.desbloquea = transponer(cierre);
+        }
+
+        private Snapshot(Map<Long, Integer> indices, long[] ids, BitSet[] prerequisitos, BitSet[] cierre, BitSet[] desbloquea) {
+            this.indices = indices;
+            this.ids = ids;
+            this.prerequisitos = prerequisitos;
+            this.cierre = cierre;
+            this.desbloquea = desbloquea;
+        }
+
+        // Copia con una materia más, sin aristas. Los BitSet existentes se comparten: nunca se modifican
+        // después de construir la instantánea
+        Snapshot conMateria(Long materiaId) {
+            int n = ids.length;
+            Map<Long, Integer> nuevosIndices = new HashMap<>(indices);
+            nuevosIndices.put(materiaId, n);
+            long[] nuevosIds = Arrays.copyOf(ids, n + 1);
+            nuevosIds[n] = materiaId;
+            return new Snapshot(nuevosIndices, nuevosIds, conPosicionVacia(prerequisitos),
+                    conPosicionVacia(cierre), conPosicionVacia(desbloquea));
+        }
+
+        // Copia sin una materia que no tiene aristas. Su posición queda sin usar (ningún BitSet la referencia)
+        // hasta la siguiente recarga completa
+        Snapshot sinMateria(Long materiaId) {
+            Map<Long, Integer> nuevosIndices = new HashMap<>(indices);
+            nuevosIndices.remove(materiaId);
+            return new Snapshot(nuevosIndices, ids, prerequisitos, cierre, desbloquea);
+        }
+
+        private static BitSet[] conPosicionVacia(BitSet[] relacion) {
+            BitSet[] copia = Arrays.copyOf(relacion, relacion.length + 1);
+            copia[relacion.length] = new BitSet();
+            return copia;
+        }
+
+        // Cierre transitivo en orden topológico (algoritmo de Kahn): una materia se procesa cuando
+        // todos sus prerequisitos ya tienen su cierre calculado, y hereda el de cada uno con un OR.
+        // Las materias que forman parte de un ciclo (datos antiguos) se resuelven con un recorrido.
+        private BitSet[] calcularCierre() {
+            int n = ids.length;
+            BitSet[] resultado = new BitSet[n];
+            BitSet[] dependientes = transponer(prerequisitos);
+            int[] pendientes = new int[n];
+            int[] cola = new int[n];
+            int inicio = 0;
+            int fin = 0;
+            for (int i = 0; i < n; i++) {
+                resultado[i] = new BitSet(n);
+                pendientes[i] = prerequisitos[i].cardinality();
+                if (pendientes[i] == 0) {
+                    cola[fin++] = i;
+                }
+            }
+            while (inicio < fin) {
+                int actual = cola[inicio++];
+                BitSet siguientes = dependientes[actual];
+                for (int m = siguientes.nextSetBit(0); m >= 0; m = siguientes.nextSetBit(m + 1)) {
+                    resultado[m].set(actual);
+                    resultado[m].or(resultado[actual]);
+                    if (--pendientes[m] == 0) {
+                        cola[fin++] = m;
+                    }
+                }
+            }
+            if (fin < n) {
+                for (int i = 0; i < n; i++) {
+                    if (pendientes[i] > 0) {
+                        resultado[i] = alcanzables(i);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        // Invierte la relación representada por los BitSet (i -> j pasa a ser j -> i)
+        private BitSet[] transponer(BitSet[] relacion) {
+            BitSet[] transpuesta = new BitSet[relacion.length];
+            for (int i = 0; i < relacion.length; i++) {
+                transpuesta[i] = new BitSet(relacion.length);
+            }
+            for (int i = 0; i < relacion.length; i++) {
+                for (int j = relacion[i].nextSetBit(0); j >= 0; j = relacion[i].nextSetBit(j + 1)) {
+                    transpuesta[j].set(i);
+                }
+            }
+            return transpuesta;
+        }
+
+        // Convierte un BitSet de posiciones en la lista de IDs de materia correspondiente
+        List<Long> aIds(BitSet bits) {
+            List<Long> resultado = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                resultado.add(ids[i]);
+            }
+            return resultado;
+        }
+
+        // Convierte una colección de IDs de materia en un BitSet de posiciones (ignora IDs desconocidos)
+        BitSet aBitSet(Collection<Long> materiaIds) {
+            BitSet bits = new BitSet(ids.length);
+            for (Long id : materiaIds) {
+                Integer indice = indices.get(id);
+                if (indice != null) {
+                    bits.set(indice);
+                }
+            }
+            return bits;
+        }
+
+        // Todas las materias que son prerequisito (directo o transitivo) de la materia en la posición dada
+        BitSet alcanzables(int origen) {
+            BitSet visitados = new BitSet(ids.length);
+            int[] pila = new int[ids.length + 1];
+            int tope = 0;
+            pila[tope++] = origen;
+            while (tope > 0) {
+                BitSet siguientes = prerequisitos[pila[--tope]];
+                for (int i = siguientes.nextSetBit(0); i >= 0; i = siguientes.nextSetBit(i + 1)) {
+                    if (!visitados.get(i)) {
+                        visitados.set(i);
+                        pila[tope++] = i;
+                    }
+                }
+            }
+            return visitados;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.universidad.metricas;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mide la duración de cada método de los controladores REST (controller y registro.controller) en el timer
+ * {@code controlador.peticiones}, etiquetado por controlador, método y resultado. El número de mediciones da
+ * el volumen por endpoint; los percentiles e histogramas se configuran con management.metrics.distribution.
+ */
+@Aspect
+@Component
+public class MetricasControladoresAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Around("within(com.universidad.controller..*) || within(com.universidad.registro.controller..*)")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        String resultado = "exito";
+        String excepcion = "none";
+        try {
+            Object retorno = joinPoint.proceed();
+            if (retorno instanceof ResponseEntity<?> respuesta && respuesta.getStatusCode().isError()) {
+                resultado = respuesta.getStatusCode().is4xxClientError() ? "error_cliente" : "error_servidor";
+            }
+            return retorno;
+        } catch (Throwable ex) {
+            // La categoría del error la registra GlobalExceptionHandler (api.errores)
+            resultado = "excepcion";
+            excepcion = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            muestra.stop(Timer.builder("controlador.peticiones")
+                    .description("Duración de los métodos de los controladores REST")
+                    .tag("controlador", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("resultado", resultado)
+                    .tag("excepcion", excepcion)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.universidad.model;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
@@ -31,6 +34,7 @@ public class Docente extends Persona {
     private String departamento;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // IDs de las materias asignadas (las materias salen del cache de Materia)
     @JoinTable(
         name = "docente_materia",
         joinColumns = @JoinColumn(name = "docente_id"),
@@ -0,0 +1,30 @@
+package com.universidad.model;
+
+import java.util.Locale;
+
+/**
+ * Estados posibles de un estudiante.
+ * En la base de datos se guarda el valor en minúsculas ("activo", "inactivo"), de modo que los
+ * filtros por estado son comparaciones exactas que pueden usar el índice de la columna.
+ */
+public enum EstadoEstudiante {
+    ACTIVO("activo"),
+    INACTIVO("inactivo");
+
+    private final String valor;
+
+    EstadoEstudiante(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    /**
+     * Devuelve el estado en su forma normalizada (sin espacios y en minúsculas), o null si es null.
+     */
+    public static String normalizar(String estado) {
+        return estado != null ? estado.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
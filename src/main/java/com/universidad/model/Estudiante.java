@@ -29,7 +29,10 @@ import jakarta.persistence.*; // Importa las anotaciones de JPA para la persiste
  * @author Universidad
  */
 @Entity // Anotación que indica que esta clase es una entidad JPA
-@Table(name = "estudiante") // Nombre de la tabla en la base de datos
+@Table(name = "estudiante", indexes = {
+    // Índice para los listados filtrados por estado (estudiantes activos)
+    @Index(name = "idx_estudiante_estado", columnList = "estado")
+}) // Nombre de la tabla en la base de datos
 public class Estudiante extends Persona { // Define la clase Estudiante que extiende de Persona
     
     /**
@@ -102,6 +105,15 @@ public class Estudiante extends Persona { // Define la clase Estudiante que exti
     )
     private List<Materia> materias; // Lista de materias asociadas al estudiante
 
+    /**
+     * Guarda siempre el estado normalizado (ver {@link EstadoEstudiante}).
+     */
+    @PrePersist
+    @PreUpdate
+    private void normalizarEstado() {
+        this.estado = EstadoEstudiante.normalizar(this.estado);
+    }
+
     /*@Version
     private Long version; // Campo para manejar la versión de la entidad, útil para el control de concurrencia*/
 
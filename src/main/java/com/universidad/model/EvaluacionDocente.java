@@ -12,7 +12,9 @@ import lombok.NoArgsConstructor;
 @Table(name = "evaluacion_docente") // Nombre de la tabla en la base de datos
 public class EvaluacionDocente { 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia pooled como en Persona: las evaluaciones llegan en tandas al cierre de cada período
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evaluacion_docente_seq")
+    @SequenceGenerator(name = "evaluacion_docente_seq", sequenceName = "evaluacion_docente_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -7,8 +7,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -21,10 +23,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "inscripcion")
+@Table(name = "inscripcion", indexes = {
+    // Índices compuestos para las consultas de inscripciones activas por materia y por estudiante
+    @Index(name = "idx_inscripcion_materia_estado", columnList = "materia_id, estado"),
+    @Index(name = "idx_inscripcion_estudiante_estado", columnList = "estudiante_id, estado")
+})
 public class Inscripcion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia pooled como en Persona: las inscripciones en lote y la cola de inscripciones insertan muchas filas seguidas
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inscripcion_seq")
+    @SequenceGenerator(name = "inscripcion_seq", sequenceName = "inscripcion_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
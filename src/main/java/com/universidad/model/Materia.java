@@ -3,13 +3,21 @@ package com.universidad.model;
 import java.io.Serializable;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import jakarta.persistence.Cacheable;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
@@ -25,6 +33,8 @@ import lombok.Setter;
 @Builder
 @Entity
 @Table(name = "materia") // Nombre de la tabla en la base de datos
+@Cacheable // Se lee mucho más de lo que se escribe: va al cache de segundo nivel de Hibernate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 // Esta clase representa una materia en el sistema de gestión de estudiantes
 public class Materia implements Serializable {
     
@@ -35,13 +45,16 @@ public class Materia implements Serializable {
         this.id = id;
         this.nombreMateria = nombreMateria;
         this.codigoUnico = codigoUnico;
+        this.cuposOcupados = 0;
     }
 
 
     @Id // Anotación que indica que este campo es la clave primaria
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY) // Generación automática del ID
+    // Secuencia pooled como en Persona; las altas de materias del plan de estudios se insertan en lotes
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "materia_seq")
+    @SequenceGenerator(name = "materia_seq", sequenceName = "materia_seq", allocationSize = 50)
     @Column(name = "id_materia") // Nombre de la columna en la base de datos
-    // El ID de la materia es generado automáticamente por la base de datos
+    // El ID de la materia se toma de la secuencia materia_seq
     private Long id;
 
     @Column(name = "nombre_materia", nullable = false, length = 100) // Columna no nula con longitud máxima de 100 caracteres
@@ -56,6 +69,16 @@ public class Materia implements Serializable {
     // El número de créditos de la materia no puede ser nulo
     private Integer creditos;
 
+    /**
+     * Número de inscripciones activas en la materia. Solo se modifica mediante las
+     * actualizaciones condicionales de {@code MateriaRepository} (nunca al guardar la entidad),
+     * para que la reserva de cupos no dependa de bloquear la fila durante toda la transacción.
+     */
+    @Column(name = "cupos_ocupados", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer cuposOcupados = 0;
+
     @Version // Anotación para manejar la versión de la entidad
     private Long version; // Campo para manejar la versión de la entidad, útil para el control de concurrencia
 
@@ -66,6 +89,7 @@ public class Materia implements Serializable {
      * Lista de materias que son prerequisitos para esta materia.
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
         name = "materia_prerequisito",
         joinColumns = @JoinColumn(name = "id_materia"),
@@ -77,6 +101,7 @@ public class Materia implements Serializable {
      * Lista de materias para las que esta materia es prerequisito.
      */
     @ManyToMany(mappedBy = "prerequisitos")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Materia> esPrerequisitoDe;
 
     /**
@@ -26,7 +26,11 @@ public abstract class Persona {
 
     @Id // Anotación que indica que este campo es la clave primaria
     @Column(name = "id_persona") // Nombre de la columna en la base de datos
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Generación automática del ID
+    // Secuencia con optimizador pooled (50 IDs por llamada): a diferencia de IDENTITY permite agrupar los INSERT
+    // en lotes JDBC. Materia, Inscripcion, EvaluacionDocente y Usuario siguen el mismo esquema con su propia secuencia.
+    // Estudiante y Docente heredan este ID, así que la importación masiva de estudiantes se inserta en lotes
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "persona_seq")
+    @SequenceGenerator(name = "persona_seq", sequenceName = "persona_seq", allocationSize = 50)
     private Long id;
 
     @Version
@@ -0,0 +1,106 @@
+package com.universidad.persistencia;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Acumulador de la actividad de persistencia de la petición HTTP en curso: sentencias SQL,
+ * tiempo JDBC, entidades cargadas y ejecuciones de cada SELECT (para detectar patrones N+1).
+ * Vive en un ThreadLocal mientras dura la petición; fuera de una petición (tareas programadas,
+ * trabajadores de la cola, exportaciones asíncronas) no hay acumulador y no se registra nada.
+ */
+public final class ConsultasPeticion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsultasPeticion.class);
+
+    private static final ThreadLocal<ConsultasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private final String peticion; // Método y ruta, solo para los mensajes de log
+    private final long umbralLentaNanos;
+
+    private long sentencias;
+    private long jdbcNanos;
+    private long entidadesCargadas;
+    private long consultasLentas;
+    private String sqlActual; // Última sentencia preparada, a la que se atribuye la siguiente ejecución
+    private final Map<String, Integer> ejecucionesPorSelect = new HashMap<>();
+
+    private ConsultasPeticion(String peticion, long umbralLentaNanos) {
+        this.peticion = peticion;
+        this.umbralLentaNanos = umbralLentaNanos;
+    }
+
+    /**
+     * Empieza a acumular para la petición del hilo actual.
+     */
+    public static ConsultasPeticion iniciar(String peticion, long umbralLentaNanos) {
+        ConsultasPeticion consultas = new ConsultasPeticion(peticion, umbralLentaNanos);
+        ACTUAL.set(consultas);
+        return consultas;
+    }
+
+    /**
+     * Acumulador de la petición del hilo actual, o null si el hilo no está atendiendo una petición.
+     */
+    public static ConsultasPeticion actual() {
+        return ACTUAL.get();
+    }
+
+    public static void finalizar() {
+        ACTUAL.remove();
+    }
+
+    void registrarSentencia(String sql) {
+        sentencias++;
+        sqlActual = sql;
+        // Solo los SELECT repetidos indican N+1; los INSERT/UPDATE repetidos son lotes JDBC
+        if (sql.regionMatches(true, 0, "select", 0, 6)) {
+            ejecucionesPorSelect.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void registrarEjecucion(long nanos) {
+        jdbcNanos += nanos;
+        if (nanos >= umbralLentaNanos) {
+            consultasLentas++;
+            logger.warn("Consulta lenta ({} ms) en {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), peticion, sqlActual);
+        }
+    }
+
+    void registrarEntidadCargada() {
+        entidadesCargadas++;
+    }
+
+    public long getSentencias() {
+        return sentencias;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public long getEntidadesCargadas() {
+        return entidadesCargadas;
+    }
+
+    public long getConsultasLentas() {
+        return consultasLentas;
+    }
+
+    /**
+     * SELECT ejecutados al menos {@code umbral} veces en la petición, con su número de ejecuciones.
+     */
+    public Map<String, Integer> selectsRepetidos(int umbral) {
+        Map<String, Integer> repetidos = new HashMap<>();
+        ejecucionesPorSelect.forEach((sql, veces) -> {
+            if (veces >= umbral) {
+                repetidos.put(sql, veces);
+            }
+        });
+        return repetidos;
+    }
+}
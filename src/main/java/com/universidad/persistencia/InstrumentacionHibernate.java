@@ -0,0 +1,30 @@
+package com.universidad.persistencia;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Ganchos de Hibernate compartidos por todas las sesiones: cuenta cada sentencia SQL preparada
+ * y cada entidad cargada en el acumulador de la petición en curso. No modifica el SQL.
+ */
+public class InstrumentacionHibernate implements StatementInspector, Interceptor {
+
+    @Override
+    public String inspect(String sql) {
+        ConsultasPeticion consultas = ConsultasPeticion.actual();
+        if (consultas != null) {
+            consultas.registrarSentencia(sql);
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        ConsultasPeticion consultas = ConsultasPeticion.actual();
+        if (consultas != null) {
+            consultas.registrarEntidadCargada();
+        }
+        return false; // El estado cargado no se modifica
+    }
+}
@@ -0,0 +1,40 @@
+package com.universidad.persistencia;
+
+import org.hibernate.engine.spi.SessionEventListener;
+
+/**
+ * Mide el tiempo de cada ejecución JDBC (sentencias y lotes) de una sesión de Hibernate y lo suma
+ * al acumulador de la petición en curso. Hibernate crea una instancia por sesión
+ * (propiedad {@code hibernate.session.events.auto}).
+ */
+public class MedidorJdbc implements SessionEventListener {
+
+    private long inicio;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        registrar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        registrar();
+    }
+
+    private void registrar() {
+        ConsultasPeticion consultas = ConsultasPeticion.actual();
+        if (consultas != null) {
+            consultas.registrarEjecucion(System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.universidad.persistencia;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Publica, por endpoint, la actividad de persistencia de cada petición: sentencias SQL, tiempo JDBC,
+ * entidades cargadas, consultas lentas y SELECT repetidos (posibles N+1).
+ * Va antes que el filtro de seguridad para incluir también las consultas de autenticación.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MetricasPersistenciaFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricasPersistenciaFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Duración a partir de la cual una ejecución JDBC se considera lenta
+    @Value("${app.persistencia.consulta-lenta:PT0.5S}")
+    private Duration umbralConsultaLenta;
+
+    // Número de ejecuciones del mismo SELECT en una petición a partir del cual se considera un N+1
+    @Value("${app.persistencia.umbral-n-mas-uno:10}")
+    private int umbralNMasUno;
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        ConsultasPeticion consultas = ConsultasPeticion.iniciar(
+                request.getMethod() + " " + request.getRequestURI(), umbralConsultaLenta.toNanos());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConsultasPeticion.finalizar();
+            publicar(request, consultas);
+        }
+    }
+
+    private void publicar(HttpServletRequest request, ConsultasPeticion consultas) {
+        // Ruta del controlador (p. ej. /api/materias/{id}), no la URI concreta, para acotar las series
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+
+        DistributionSummary.builder("persistencia.peticion.sentencias")
+                .description("Sentencias SQL ejecutadas por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consultas.getSentencias());
+        DistributionSummary.builder("persistencia.peticion.entidades")
+                .description("Entidades cargadas por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consultas.getEntidadesCargadas());
+        Timer.builder("persistencia.peticion.jdbc")
+                .description("Tiempo total de ejecución JDBC por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(consultas.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        if (consultas.getConsultasLentas() > 0) {
+            Counter.builder("persistencia.consultas.lentas")
+                    .description("Ejecuciones JDBC por encima del umbral de consulta lenta")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment(consultas.getConsultasLentas());
+        }
+        consultas.selectsRepetidos(umbralNMasUno).forEach((sql, veces) -> {
+            Counter.builder("persistencia.n_mas_uno")
+                    .description("SELECT repetidos en una misma petición (posibles N+1)")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("Posible N+1 en {} {}: {} ejecuciones de {}", request.getMethod(), uri, veces, sql);
+        });
+    }
+}
@@ -1,12 +1,21 @@
 package com.universidad.registro.controller;
 
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.universidad.registro.dto.AuthDTO.MessageResponse;
+import com.universidad.registro.repository.UsuarioRepository;
+import com.universidad.registro.security.RevocacionTokens;
+import com.universidad.registro.service.UserDetailsServiceImpl;
+
 
 
 @CrossOrigin(origins = "*", maxAge = 3600) // Permite el acceso desde cualquier origen (CORS)
@@ -15,7 +24,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class UsuarioController { // Controlador para manejar las peticiones relacionadas con los usuarios
     // Aquí puedes inyectar los servicios necesarios para manejar la lógica de negocio relacionada con los usuarios
-    
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
 
     @GetMapping("/public/test") // Endpoint público accesible sin autenticación
     @PreAuthorize("permitAll()") // Permite el acceso a todos los usuarios, sin importar su rol
@@ -46,4 +63,21 @@ public class UsuarioController { // Controlador para manejar las peticiones rela
     public String adminAccess() {
         return "Contenido para administradores";
     }
+
+    // Desactiva un usuario y revoca los tokens que ya tenga emitidos
+    // La autenticación se construye desde los claims del JWT, así que sin la revocación
+    // el usuario conservaría el acceso hasta que su token expire
+    @PutMapping("/admin/usuarios/{id}/desactivar")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> desactivarUsuario(@PathVariable Long id) {
+        return usuarioRepository.findById(id)
+                .<ResponseEntity<?>>map(usuario -> {
+                    usuario.setActivo(false);
+                    usuarioRepository.save(usuario);
+                    revocacionTokens.revocar(usuario.getUsername());
+                    userDetailsService.invalidarUsuario(usuario.getUsername());
+                    return ResponseEntity.ok(new MessageResponse("Usuario desactivado exitosamente!"));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
@@ -6,8 +6,13 @@ import lombok.NoArgsConstructor;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
 @Table(name = "roles")
+@Cacheable // Filas fijas que se leen con cada usuario: cache de segundo nivel de Hibernate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
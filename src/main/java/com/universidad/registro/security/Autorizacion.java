@@ -0,0 +1,105 @@
+package com.universidad.registro.security;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.repository.DocenteRepository;
+import com.universidad.repository.EvaluacionDocenteRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Comprobaciones de propiedad para las expresiones de @PreAuthorize, por ejemplo
+ * {@code @autorizacion.esEstudiante(authentication, #estudianteId)}.
+ * Los IDs del estudiante y del docente vinculados al usuario vienen en el principal (claims del JWT),
+ * así que estas comprobaciones no consultan la base de datos; las excepciones son el docente de
+ * una evaluación, que se obtiene consultando solo su ID y se guarda en un cache local, y la asignación
+ * de una materia a un docente, que se consulta en la tabla intermedia.
+ */
+@Component("autorizacion")
+public class Autorizacion {
+
+    @Autowired
+    private EvaluacionDocenteRepository evaluacionDocenteRepository;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    @Value("${app.autorizacion.cache-ttl:PT10M}")
+    private Duration cacheTtl;
+
+    // ID de evaluación -> ID del docente evaluado. Solo se guardan evaluaciones existentes: una consulta por
+    // una evaluación que aún no existe no debe negar el acceso cuando se cree
+    private Cache<Long, Long> docentePorEvaluacion;
+
+    @PostConstruct
+    public void init() {
+        docentePorEvaluacion = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    // Indica si el usuario autenticado es el estudiante indicado
+    public boolean esEstudiante(Authentication authentication, Long estudianteId) {
+        UsuarioPrincipal principal = principal(authentication);
+        return principal != null && estudianteId != null && estudianteId.equals(principal.getEstudianteId());
+    }
+
+    // Indica si todas las inscripciones pertenecen al estudiante autenticado
+    public boolean esEstudianteDeTodas(Authentication authentication, Collection<InscripcionDTO> inscripciones) {
+        UsuarioPrincipal principal = principal(authentication);
+        if (principal == null || principal.getEstudianteId() == null || inscripciones == null) {
+            return false;
+        }
+        return inscripciones.stream()
+                .allMatch(inscripcion -> principal.getEstudianteId().equals(inscripcion.getEstudianteId()));
+    }
+
+    // Indica si el usuario autenticado es el docente indicado
+    public boolean esDocente(Authentication authentication, Long docenteId) {
+        UsuarioPrincipal principal = principal(authentication);
+        return principal != null && docenteId != null && docenteId.equals(principal.getDocenteId());
+    }
+
+    // Indica si la materia está asignada al docente autenticado. Sin cache: al quitarle la materia a un docente
+    // debe perder el acceso de inmediato (la consulta es una sola fila de la tabla intermedia, por índice)
+    public boolean esDocenteDeMateria(Authentication authentication, Long materiaId) {
+        UsuarioPrincipal principal = principal(authentication);
+        if (principal == null || principal.getDocenteId() == null || materiaId == null) {
+            return false;
+        }
+        return docenteRepository.dictaMateria(principal.getDocenteId(), materiaId);
+    }
+
+    // Indica si la evaluación pertenece al docente autenticado
+    public boolean esDocenteDeEvaluacion(Authentication authentication, Long evaluacionId) {
+        UsuarioPrincipal principal = principal(authentication);
+        if (principal == null || principal.getDocenteId() == null || evaluacionId == null) {
+            return false;
+        }
+        // Si la función devuelve null, Caffeine no guarda nada
+        Long docenteId = docentePorEvaluacion.get(evaluacionId,
+                id -> evaluacionDocenteRepository.findDocenteIdById(id).orElse(null));
+        return docenteId != null && Objects.equals(docenteId, principal.getDocenteId());
+    }
+
+    // Descarta la evaluación del cache (al eliminarla)
+    public void olvidarEvaluacion(Long evaluacionId) {
+        docentePorEvaluacion.invalidate(evaluacionId);
+    }
+
+    private static UsuarioPrincipal principal(Authentication authentication) {
+        return authentication != null && authentication.getPrincipal() instanceof UsuarioPrincipal principal
+                ? principal : null;
+    }
+}
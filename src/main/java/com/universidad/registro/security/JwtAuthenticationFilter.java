@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +16,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.universidad.registro.service.UserDetailsServiceImpl;
 
+import io.jsonwebtoken.Claims;
+
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,6 +25,8 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 // Este filtro se encarga de interceptar las solicitudes HTTP y verificar si contienen un token JWT válido en el encabezado de autorización.
 // Si el token es válido, se establece la autenticación del usuario en el contexto de seguridad de Spring.
@@ -36,6 +41,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    // Lista de usuarios desactivados cuyos tokens ya emitidos se deben rechazar
+    @Autowired
+    private RevocacionTokens revocacionTokens;
+
     // Logger para registrar información y errores
     // Utiliza SLF4J para registrar mensajes de información y errors
     // en la consola o en un archivo de registro, según la configuración del logger
@@ -50,19 +59,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Extrae el token JWT del encabezado de autorización de la solicitud HTTP
             // y lo valida utilizando el método parseJwt
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            // Una sola verificación del token: devuelve los claims ya validados (o null si no es válido)
+            Claims claims = jwt != null ? jwtUtils.getValidatedClaims(jwt) : null;
+            if (claims != null) {
+                String username = claims.getSubject();
 
-                // Si el token es válido, carga los detalles del usuario utilizando el nombre de usuario extraído del token
+                // Si el token es válido, construye el usuario a partir de los claims (sin consultar la base de datos)
                 // y establece la autenticación del usuario en el contexto de seguridad de Spring
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // Establece la autenticación en el contexto de seguridad de Spring
-                // para que esté disponible en el resto de la aplicación
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                UserDetails userDetails = principalDesdeClaims(claims);
+                if (userDetails == null) {
+                    // Tokens emitidos antes de incluir los roles: se cargan desde el cache de corta duración
+                    userDetails = userDetailsService.cargarUsuarioVigente(username);
+                }
+
+                // Los usuarios desactivados después de emitir el token quedan revocados
+                if (userDetails.isEnabled() && !revocacionTokens.estaRevocado(username, claims.getIssuedAt())) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    // Establece la autenticación en el contexto de seguridad de Spring
+                    // para que esté disponible en el resto de la aplicación
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("No se puede establecer la autenticación del usuario: {}", e);
@@ -73,6 +92,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Construye el principal con los IDs y los roles incluidos en el token, o null si el token no los trae
+    private UsuarioPrincipal principalDesdeClaims(Claims claims) {
+        Object roles = claims.get(JwtUtils.CLAIM_ROLES);
+        if (!(roles instanceof List<?> listaRoles)) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = listaRoles.stream()
+                .map(rol -> new SimpleGrantedAuthority(String.valueOf(rol)))
+                .collect(Collectors.toList());
+        return new UsuarioPrincipal(claimId(claims, JwtUtils.CLAIM_USUARIO_ID),
+                claimId(claims, JwtUtils.CLAIM_ESTUDIANTE_ID), claimId(claims, JwtUtils.CLAIM_DOCENTE_ID),
+                claims.getSubject(), null, true, authorities);
+    }
+
+    // Los números del JWT se leen como Integer o Long según su tamaño
+    private static Long claimId(Claims claims, String nombre) {
+        return claims.get(nombre) instanceof Number numero ? numero.longValue() : null;
+    }
+
     // Método para extraer el token JWT del encabezado de autorización de la solicitud HTTP
     // Verifica si el encabezado tiene el prefijo "Bearer " y extrae el token
     private String parseJwt(HttpServletRequest request) { 
@@ -2,16 +2,31 @@ package com.universidad.registro.security;
 
 
 import io.jsonwebtoken.*;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.security.SignatureException;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 
 @Component
@@ -31,19 +46,75 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // Número máximo de tokens ya verificados que se recuerdan para no repetir la verificación HMAC
+    @Value("${app.jwt.cache.maximum-size:10000}")
+    private long tokenCacheMaximumSize;
+
+    // Nombres de los claims propios del token
+    public static final String CLAIM_USUARIO_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_ESTUDIANTE_ID = "eid";
+    public static final String CLAIM_DOCENTE_ID = "did";
+
+    // Clave y parser construidos una sola vez; ambos son inmutables y seguros entre hilos
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Tokens ya verificados (por su hash SHA-256) y sus claims; cada entrada expira junto con el token
+    private Cache<String, Claims> tokensVerificados;
+
+    @PostConstruct
+    public void init() {
+        signingKey = new SecretKeySpec(jwtSecret.getBytes(), SignatureAlgorithm.HS512.getJcaName());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(tokenCacheMaximumSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long restanteMs = claims.getExpiration() != null
+                                ? claims.getExpiration().getTime() - System.currentTimeMillis()
+                                : jwtExpirationMs;
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMs, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     // Este método se utiliza para extraer el token JWT del encabezado de autorización de la solicitud HTTP
     // El token JWT se espera que esté en el formato "Bearer <token>"
     // Si el encabezado de autorización no está presente o no tiene el formato correcto, se devuelve null
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
+        // Los roles y los IDs del usuario (y de su estudiante o docente) viajan en el token para que el filtro construya la
+        // autenticación a partir de los claims, sin consultar la base de datos en cada petición
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+        UsuarioPrincipal principal = userPrincipal instanceof UsuarioPrincipal p ? p : null;
+
         // Se utiliza para generar un nuevo token JWT utilizando la información del usuario autenticado
         // Se establece el sujeto del token como el nombre de usuario del usuario autenticado
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USUARIO_ID, principal != null ? principal.getId() : null)
+                .claim(CLAIM_ESTUDIANTE_ID, principal != null ? principal.getEstudianteId() : null)
+                .claim(CLAIM_DOCENTE_ID, principal != null ? principal.getDocenteId() : null)
+                .claim(CLAIM_ROLES, roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(new javax.crypto.spec.SecretKeySpec(jwtSecret.getBytes(), SignatureAlgorithm.HS512.getJcaName()), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
@@ -51,17 +122,34 @@ public class JwtUtils {
     // El token JWT se espera que esté en el formato "Bearer <token>"
     // Si el encabezado de autorización no está presente o no tiene el formato correcto, se devuelve null
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(token).getBody().getSubject();
+        Claims claims = getValidatedClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
-    
+
     public boolean validateJwtToken(String authToken) { // Este método se utiliza para validar el token JWT
+        return getValidatedClaims(authToken) != null;
+    }
+
+    // Verifica el token una sola vez y devuelve sus claims, o null si el token no es válido.
+    // Si el mismo token ya fue verificado y no ha expirado, se devuelven los claims recordados
+    // sin volver a calcular la firma HMAC-SHA512
+    public Claims getValidatedClaims(String authToken) {
+        if (authToken == null || authToken.isEmpty()) {
+            logger.error("JWT claims string is empty");
+            return null;
+        }
+        String hash = hashToken(authToken);
+        Claims claims = tokensVerificados.getIfPresent(hash);
+        if (claims != null) {
+            return claims;
+        }
         // Se utiliza para verificar la firma del token y asegurarse de que no haya sido modificado
         // Se verifica si el token ha expirado y si es válido
-        // Si el token es válido, se devuelve true; de lo contrario, se devuelve false
         try {
-            Jwts.parserBuilder().setSigningKey(jwtSecret.getBytes()).build().parseClaimsJws(authToken);
-            return true;
+            claims = jwtParser.parseClaimsJws(authToken).getBody();
+            tokensVerificados.put(hash, claims);
+            return claims;
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -75,6 +163,16 @@ public class JwtUtils {
         }
 
 
-        return false;
+        return null;
+    }
+
+    // Hash SHA-256 del token: evita guardar los tokens en claro como claves del cache
+    private static String hashToken(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
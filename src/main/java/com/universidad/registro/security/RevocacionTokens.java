@@ -0,0 +1,80 @@
+package com.universidad.registro.security;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista de revocación de usuarios desactivados.
+ * Como la autenticación se construye a partir de los claims del JWT, un usuario desactivado
+ * conservaría el acceso hasta que su token expire; aquí se registra el instante de la revocación
+ * y se rechazan los tokens emitidos antes de él. La lista vive en un hash de Redis (compartido
+ * entre nodos) y cada nodo guarda una copia local que refresca periódicamente, de modo que la
+ * comprobación en cada petición no hace ninguna llamada de red.
+ */
+@Component
+public class RevocacionTokens {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocacionTokens.class);
+
+    private static final String CLAVE_REDIS = "jwt:revocados";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    // username -> instante de la revocación (ms); ante dos instantes para el mismo usuario gana el más reciente
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+
+    // Revoca todos los tokens emitidos hasta ahora para el usuario
+    public void revocar(String username) {
+        long ahora = System.currentTimeMillis();
+        revocados.merge(username, ahora, Math::max);
+        try {
+            redisTemplate.opsForHash().put(CLAVE_REDIS, username, String.valueOf(ahora));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo registrar la revocación de {} en Redis: {}", username, e.getMessage());
+        }
+    }
+
+    // Indica si el token emitido en la fecha dada pertenece a un usuario revocado después de esa fecha
+    public boolean estaRevocado(String username, Date emitido) {
+        Long revocadoEn = revocados.get(username);
+        // El claim iat tiene precisión de segundos: un token del mismo segundo también se rechaza
+        return revocadoEn != null && (emitido == null || emitido.getTime() <= revocadoEn);
+    }
+
+    // Incorpora las revocaciones de Redis a la copia local y descarta las que solo afectan a tokens ya expirados.
+    // Se fusiona en lugar de reemplazar: una revocación local que aún no llegó a Redis (o que falló al
+    // escribirse) se conserva hasta que vence
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.jwt.revocacion.refresco-ms:30000}")
+    public void refrescar() {
+        try {
+            long limite = System.currentTimeMillis() - jwtExpirationMs;
+            for (Map.Entry<Object, Object> entrada : redisTemplate.opsForHash().entries(CLAVE_REDIS).entrySet()) {
+                long revocadoEn = Long.parseLong(entrada.getValue().toString());
+                if (revocadoEn < limite) {
+                    redisTemplate.opsForHash().delete(CLAVE_REDIS, entrada.getKey());
+                } else {
+                    revocados.merge(entrada.getKey().toString(), revocadoEn, Math::max);
+                }
+            }
+            revocados.values().removeIf(revocadoEn -> revocadoEn < limite);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo refrescar la lista de revocación desde Redis: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.universidad.registro.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Usuario autenticado. Se construye desde la base de datos al iniciar sesión y, en el resto
+ * de peticiones, directamente desde los claims del JWT (sin consultar la base de datos).
+ */
+@Getter
+@AllArgsConstructor
+public class UsuarioPrincipal implements UserDetails, CredentialsContainer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id; // ID del usuario en la tabla usuarios
+    private final Long estudianteId; // ID del estudiante vinculado por correo, o null
+    private final Long docenteId; // ID del docente vinculado por correo, o null
+    private final String username;
+    @JsonIgnore
+    private String password; // Solo presente durante el inicio de sesión
+    private final boolean activo;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return activo;
+    }
+
+    // Spring Security borra la contraseña una vez completada la autenticación
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -1,11 +1,20 @@
 package com.universidad.registro.service;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.universidad.registro.model.Rol;
 import com.universidad.registro.model.Usuario;
 import com.universidad.registro.repository.UsuarioRepository;
+import com.universidad.registro.security.UsuarioPrincipal;
+import com.universidad.repository.DocenteRepository;
+import com.universidad.repository.EstudianteRepository;
+
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -13,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,10 +30,33 @@ import java.util.stream.Collectors;
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     // Inyectar el repositorio de Usuario para acceder a los datos de usuario
-    // y sus roles 
+    // y sus roles
     @Autowired
     private UsuarioRepository usuarioRepository;
 
+    // Repositorios para vincular el usuario con su estudiante o docente (mismo correo electrónico)
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    // Tiempo durante el que se reutiliza un usuario cargado desde la base de datos
+    @Value("${app.jwt.usuario-cache-ttl:PT1M}")
+    private Duration usuarioCacheTtl;
+
+    // Cache local de corta duración para los casos que necesitan el estado actual del usuario
+    // (por ejemplo, el indicador activo) y no pueden fiarse solo de los claims del token
+    private Cache<String, UserDetails> usuariosRecientes;
+
+    @PostConstruct
+    public void init() {
+        usuariosRecientes = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(usuarioCacheTtl)
+                .build();
+    }
+
     // Método que carga el usuario por su nombre de usuario (username)
     // Este método es llamado por el framework de Spring Security durante el proceso de autenticación
     @Override
@@ -43,9 +76,36 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 })
                 .collect(Collectors.toList());
 
-        // Crear un objeto User de Spring Security con los detalles del usuario
-        // y sus roles (authorities)
-        return new User(usuario.getUsername(), usuario.getPassword(), usuario.isActivo(),
-                true, true, true, authorities);
+        // El estudiante o docente vinculado se resuelve una sola vez aquí (consultando solo el ID)
+        // y viaja en el token, de modo que las comprobaciones de propiedad no consultan la base de datos
+        Long estudianteId = tieneRol(usuario, Rol.NombreRol.ROL_ESTUDIANTE)
+                ? estudianteRepository.findIdByEmail(usuario.getEmail()).orElse(null) : null;
+        Long docenteId = tieneRol(usuario, Rol.NombreRol.ROL_DOCENTE)
+                ? docenteRepository.findIdByEmail(usuario.getEmail()).orElse(null) : null;
+
+        // Crear el principal con los IDs del usuario, que luego se incluyen en el token JWT
+        return new UsuarioPrincipal(usuario.getId(), estudianteId, docenteId, usuario.getUsername(),
+                usuario.getPassword(), usuario.isActivo(), authorities);
+    }
+
+    private static boolean tieneRol(Usuario usuario, Rol.NombreRol nombre) {
+        return usuario.getRoles().stream().anyMatch(rol -> rol.getNombre() == nombre);
+    }
+
+    // Devuelve el usuario desde el cache local de corta duración, cargándolo si no está o ya expiró.
+    // La contraseña no se conserva en el cache
+    public UserDetails cargarUsuarioVigente(String username) {
+        return usuariosRecientes.get(username, clave -> {
+            UserDetails usuario = loadUserByUsername(clave);
+            if (usuario instanceof UsuarioPrincipal principal) {
+                principal.eraseCredentials();
+            }
+            return usuario;
+        });
+    }
+
+    // Descarta el usuario del cache local (por ejemplo, al desactivarlo)
+    public void invalidarUsuario(String username) {
+        usuariosRecientes.invalidate(username);
     }
 }
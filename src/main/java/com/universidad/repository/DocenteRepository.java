@@ -1,16 +1,46 @@
 package com.universidad.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.universidad.model.Docente;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+
 public interface DocenteRepository extends JpaRepository<Docente, Long> {
-    // Método para buscar docente por número de empleado
+    // Método para buscar docente por número de empleado; el resultado va al cache de consultas de Hibernate
+    // (se invalida al escribir en la tabla docente)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Docente> findByNroEmpleado(String nroEmpleado);
 
     // Método para buscar docentes que enseñan una materia específica
     List<Docente> findByMaterias_Id(Long materiaId);
+
+    // Indica si la materia está asignada al docente, consultando solo la tabla intermedia (comprobaciones de autorización)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM docente_materia WHERE docente_id = :docenteId AND materia_id = :materiaId)", nativeQuery = true)
+    boolean dictaMateria(@Param("docenteId") Long docenteId, @Param("materiaId") Long materiaId);
+
+    // Método para obtener solo el ID del docente vinculado a un correo (usado al iniciar sesión)
+    @Query("SELECT d.id FROM Docente d WHERE d.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // Página por cursor: docentes con ID mayor que after, filtrados opcionalmente por departamento
+    @Query("SELECT d FROM Docente d WHERE d.id > :after AND (:departamento IS NULL OR d.departamento = :departamento) ORDER BY d.id")
+    List<Docente> findPagina(@Param("after") Long after, @Param("departamento") String departamento, Pageable pageable);
+
+    // Pares (docente_id, materia_id) de la tabla intermedia, leídos en una sola consulta (para listar todos los docentes)
+    @Query(value = "SELECT docente_id, materia_id FROM docente_materia", nativeQuery = true)
+    List<Object[]> findAllMateriaPairs();
+
+    // Pares (docente_id, materia_id) de los docentes dados, en una sola consulta (para páginas y filtros)
+    @Query(value = "SELECT docente_id, materia_id FROM docente_materia WHERE docente_id IN (:ids)", nativeQuery = true)
+    List<Object[]> findMateriaPairsByDocenteIdIn(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
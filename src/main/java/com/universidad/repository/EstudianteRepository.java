@@ -3,9 +3,19 @@ package com.universidad.repository; // Define el paquete al que pertenece esta c
 import com.universidad.model.Estudiante; // Importa la clase Estudiante del paquete model
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository; // Importa la anotación Repository de Spring
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import com.universidad.dto.EstudianteDTO;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository // Anotación que indica que esta clase es un repositorio de Spring
 public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
@@ -23,6 +33,49 @@ public interface EstudianteRepository extends JpaRepository<Estudiante, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Estudiante> findById(Long id); // Método para encontrar un estudiante por su ID con bloqueo pesimista
     // Este método se utiliza para evitar condiciones de carrera al actualizar el estudiante
+
+    // Bloquea solo la fila del estudiante (sin cargar la entidad ni la de persona) hasta el fin de la transacción.
+    // Serializa las inscripciones simultáneas de un mismo estudiante, para que la verificación de duplicados y del
+    // límite de materias no compita con otra inscripción suya. Devuelve el ID, o vacío si el estudiante no existe
+    @Query(value = "SELECT id_persona FROM estudiante WHERE id_persona = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> bloquearParaInscripcion(@Param("id") Long id);
+
+    // Igual que bloquearParaInscripcion para varios estudiantes; se bloquean en orden de ID para evitar
+    // interbloqueos entre lotes. Devuelve los IDs que existen
+    @Query(value = "SELECT id_persona FROM estudiante WHERE id_persona IN (:ids) ORDER BY id_persona FOR UPDATE", nativeQuery = true)
+    List<Long> bloquearParaInscripcion(@Param("ids") Collection<Long> ids);
+
+    // Método para obtener solo el ID del estudiante vinculado a un correo (usado al iniciar sesión)
+    @Query("SELECT e.id FROM Estudiante e WHERE e.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    // Página por cursor: estudiantes con ID mayor que after, filtrados opcionalmente por estado (normalizado)
+    @Query("SELECT e FROM Estudiante e WHERE e.id > :after AND (:estado IS NULL OR e.estado = :estado) ORDER BY e.id")
+    List<Estudiante> findPagina(@Param("after") Long after, @Param("estado") String estado, Pageable pageable);
+
+    // Recorrido completo para exportación, proyectado al DTO y leído por bloques (fetch size)
+    // Debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.universidad.dto.EstudianteDTO(e.id, e.nombre, e.apellido, e.email, e.fechaNacimiento, "
+            + "e.numeroInscripcion, e.estado, e.usuarioAlta, e.fechaAlta, e.usuarioModificacion, e.fechaModificacion, "
+            + "e.usuarioBaja, e.fechaBaja, e.motivoBaja) FROM Estudiante e "
+            + "WHERE (:estado IS NULL OR e.estado = :estado) ORDER BY e.id")
+    Stream<EstudianteDTO> streamParaExportar(@Param("estado") String estado);
+
+    // Estudiantes con un estado dado (normalizado), proyectados directamente al DTO sin cargar entidades
+    @Query("SELECT new com.universidad.dto.EstudianteDTO(e.id, e.nombre, e.apellido, e.email, e.fechaNacimiento, "
+            + "e.numeroInscripcion, e.estado, e.usuarioAlta, e.fechaAlta, e.usuarioModificacion, e.fechaModificacion, "
+            + "e.usuarioBaja, e.fechaBaja, e.motivoBaja) FROM Estudiante e WHERE e.estado = :estado ORDER BY e.id")
+    List<EstudianteDTO> findDTOByEstado(@Param("estado") String estado);
+
+    // Cuáles de los correos dados ya pertenecen a alguna persona (estudiante o docente), en una sola consulta
+    @Query("SELECT p.email FROM Persona p WHERE p.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    // Cuáles de los números de inscripción dados ya existen, en una sola consulta
+    @Query("SELECT e.numeroInscripcion FROM Estudiante e WHERE e.numeroInscripcion IN :numeros")
+    List<String> findNumerosInscripcionExistentes(@Param("numeros") Collection<String> numeros);
+
     
 
 }
\ No newline at end of file
@@ -3,8 +3,15 @@ package com.universidad.repository;
 import com.universidad.model.EvaluacionDocente;
 import com.universidad.model.Docente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface EvaluacionDocenteRepository extends JpaRepository<EvaluacionDocente, Long> {
     List<EvaluacionDocente> findByDocente(Docente docente);
+
+    // Solo el ID del docente evaluado, sin cargar la evaluación ni el docente
+    @Query("SELECT e.docente.id FROM EvaluacionDocente e WHERE e.id = :id")
+    Optional<Long> findDocenteIdById(@Param("id") Long id);
 }
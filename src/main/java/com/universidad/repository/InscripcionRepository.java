@@ -1,12 +1,20 @@
 package com.universidad.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.universidad.dto.InscripcionDTO;
 import com.universidad.model.Inscripcion;
 
 @Repository
@@ -20,4 +28,41 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     
     @Query("SELECT i FROM Inscripcion i WHERE i.materia.id = :materiaId AND i.estado = 'activo'")
     List<Inscripcion> findActiveByMateriaId(@Param("materiaId") Long materiaId);
+
+    // Página por cursor proyectada directamente al DTO: no carga las entidades Estudiante ni Materia
+    @Query("SELECT new com.universidad.dto.InscripcionDTO(i.id, i.estudiante.id, i.materia.id, i.fechaInscripcion, i.estado, "
+            + "i.calificacion, i.periodoAcademico, i.usuarioRegistro) FROM Inscripcion i "
+            + "WHERE i.id > :after AND (:estado IS NULL OR i.estado = :estado) "
+            + "AND (:periodoAcademico IS NULL OR i.periodoAcademico = :periodoAcademico) ORDER BY i.id")
+    List<InscripcionDTO> findPagina(@Param("after") Long after, @Param("estado") String estado,
+            @Param("periodoAcademico") String periodoAcademico, Pageable pageable);
+
+    // Recorrido completo para exportación: se lee del cursor por bloques (fetch size) y se proyecta al DTO,
+    // así el contexto de persistencia no crece. Debe consumirse dentro de una transacción y cerrarse al terminar
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.universidad.dto.InscripcionDTO(i.id, i.estudiante.id, i.materia.id, i.fechaInscripcion, i.estado, "
+            + "i.calificacion, i.periodoAcademico, i.usuarioRegistro) FROM Inscripcion i "
+            + "WHERE (:periodoAcademico IS NULL OR i.periodoAcademico = :periodoAcademico) ORDER BY i.id")
+    Stream<InscripcionDTO> streamParaExportar(@Param("periodoAcademico") String periodoAcademico);
+
+    // Inscripciones de una materia (con estudiante y materia en la misma consulta) para calificarlas en bloque
+    @Query("SELECT i FROM Inscripcion i JOIN FETCH i.estudiante JOIN FETCH i.materia WHERE i.materia.id = :materiaId AND i.id IN :ids")
+    List<Inscripcion> findParaCalificar(@Param("materiaId") Long materiaId, @Param("ids") Collection<Long> ids);
+
+    // IDs de las materias del estudiante en un estado dado, sin cargar las entidades
+    @Query("SELECT i.materia.id FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.estado = :estado")
+    List<Long> findMateriaIdsByEstudianteIdAndEstado(@Param("estudianteId") Long estudianteId, @Param("estado") String estado);
+
+    // Filas (estudianteId, materiaId, estado) de varios estudiantes a la vez, para validar inscripciones en lote
+    @Query("SELECT i.estudiante.id, i.materia.id, i.estado FROM Inscripcion i WHERE i.estudiante.id IN :estudianteIds AND i.estado IN :estados")
+    List<Object[]> findEstudianteMateriaEstadoByEstudianteIdIn(@Param("estudianteIds") Collection<Long> estudianteIds,
+                                                               @Param("estados") Collection<String> estados);
+
+    // Conteos resueltos en la base de datos (usan los índices (estudiante_id, estado) y (materia_id, estado))
+    // para validar cupos sin materializar las inscripciones ni sus relaciones
+    @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.estudiante.id = :estudianteId AND i.estado = 'activo'")
+    long countActiveByEstudianteId(@Param("estudianteId") Long estudianteId);
+
+    @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.materia.id = :materiaId AND i.estado = 'activo'")
+    long countActiveByMateriaId(@Param("materiaId") Long materiaId);
 }
\ No newline at end of file
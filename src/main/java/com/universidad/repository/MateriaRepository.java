@@ -1,19 +1,88 @@
 package com.universidad.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.universidad.model.Materia;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 
 @Repository
 public interface MateriaRepository extends JpaRepository<Materia, Long> {
+
+    // Espacio declarado por los UPDATE nativos de cupos. Sin él, Hibernate vaciaría todas las regiones
+    // del cache de segundo nivel en cada reserva; con "materia" vaciaría la de Materia en cada inscripción.
+    // Ninguno de los dos hace falta: cupos_ocupados no es actualizable desde la entidad y su valor solo se
+    // consulta con estos UPDATE condicionales, así que una copia desactualizada en el cache no afecta a nadie
+    String ESPACIO_CUPOS = "materia_cupos";
+
+    // Resultado en el cache de consultas de Hibernate (se invalida al escribir en la tabla materia)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Materia findByCodigoUnico(String codigoUnico);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE) // Bloqueo pesimista para evitar condiciones de carrera
-    Optional<Materia> findById(Long id);
+    // Página por cursor: materias con ID mayor que after
+    @Query("SELECT m FROM Materia m WHERE m.id > :after ORDER BY m.id")
+    List<Materia> findPagina(@Param("after") Long after, Pageable pageable);
+
+    // IDs de todas las materias (para construir el índice del grafo de prerequisitos)
+    @Query("SELECT m.id FROM Materia m ORDER BY m.id")
+    List<Long> findAllIds();
+
+    // Cuáles de los IDs dados corresponden a materias existentes, en una sola consulta
+    @Query("SELECT m.id FROM Materia m WHERE m.id IN :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Pares (id_materia, id_prerequisito) de la tabla intermedia, leídos en una sola consulta
+    @Query(value = "SELECT id_materia, id_prerequisito FROM materia_prerequisito", nativeQuery = true)
+    List<Object[]> findAllPrerequisitoPairs();
+
+    // Pares (id_materia, id_prerequisito) en los que participa alguna de las materias dadas, en una sola
+    // consulta: sirven para mapear una página de materias sin inicializar sus colecciones una por una
+    @Query(value = "SELECT id_materia, id_prerequisito FROM materia_prerequisito WHERE id_materia IN (:ids) OR id_prerequisito IN (:ids)", nativeQuery = true)
+    List<Object[]> findPrerequisitoPairsByMateriaIdIn(@Param("ids") Collection<Long> ids);
+
+    // Reserva un cupo solo si la materia no está llena; devuelve 1 si se reservó y 0 en caso contrario.
+    // La condición se evalúa de forma atómica en la base de datos, sin bloqueo pesimista previo
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = ESPACIO_CUPOS))
+    @Query(value = "UPDATE materia SET cupos_ocupados = cupos_ocupados + 1 WHERE id_materia = :id AND cupos_ocupados < :maximo", nativeQuery = true)
+    int reservarCupo(@Param("id") Long id, @Param("maximo") int maximo);
+
+    // Libera un cupo previamente reservado (nunca baja de cero)
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = ESPACIO_CUPOS))
+    @Query(value = "UPDATE materia SET cupos_ocupados = cupos_ocupados - 1 WHERE id_materia = :id AND cupos_ocupados > 0", nativeQuery = true)
+    int liberarCupo(@Param("id") Long id);
+
+    // Libera varios cupos de una vez (p. ej. al calificar a todos los inscritos de una materia), sin bajar de cero
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = ESPACIO_CUPOS))
+    @Query(value = "UPDATE materia SET cupos_ocupados = GREATEST(cupos_ocupados - :cantidad, 0) WHERE id_materia = :id", nativeQuery = true)
+    int liberarCupos(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    // Candado de la reconciliación, liberado al terminar la transacción: false si otro nodo la está ejecutando
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('materia.cupos_ocupados'))", nativeQuery = true)
+    boolean bloquearReconciliacion();
+
+    // Bloquea las filas de todas las materias (en orden de ID) hasta el fin de la transacción. Las reservas y
+    // liberaciones en curso terminan antes, y las siguientes esperan a que la reconciliación confirme
+    @Query(value = "SELECT id_materia FROM materia ORDER BY id_materia FOR UPDATE", nativeQuery = true)
+    List<Long> bloquearParaReconciliar();
+
+    // Recalcula los cupos ocupados de todas las materias a partir de las inscripciones activas.
+    // Requiere las filas bloqueadas con bloquearParaReconciliar: el COUNT usa la instantánea del inicio de la
+    // sentencia y PostgreSQL no lo recalcula al esperar una fila, así que perdería las reservas confirmadas mientras tanto
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = ESPACIO_CUPOS))
+    @Query(value = "UPDATE materia m SET cupos_ocupados = (SELECT COUNT(*) FROM inscripcion i WHERE i.materia_id = m.id_materia AND i.estado = 'activo')", nativeQuery = true)
+    int reconciliarCupos();
 }
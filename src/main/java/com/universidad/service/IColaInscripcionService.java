@@ -0,0 +1,12 @@
+package com.universidad.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+
+public interface IColaInscripcionService {
+    SolicitudInscripcionDTO encolarInscripcion(InscripcionDTO inscripcionDTO);
+    CompletableFuture<SolicitudInscripcionDTO> consultarSolicitud(String ticket, long esperaMs);
+    Long obtenerEstudianteSolicitud(String ticket);
+}
@@ -3,9 +3,11 @@ package com.universidad.service;
 import java.util.List;
 
 import com.universidad.dto.DocenteDTO;
+import com.universidad.dto.PaginaDTO;
 
 public interface IDocenteService {
     List<DocenteDTO> obtenerTodosLosDocentes();
+    PaginaDTO<DocenteDTO> obtenerPaginaDocentes(Long after, int limite, String departamento);
     DocenteDTO obtenerDocentePorId(Long id);
     DocenteDTO obtenerDocentePorNroEmpleado(String nroEmpleado);
     DocenteDTO crearDocente(DocenteDTO docenteDTO);
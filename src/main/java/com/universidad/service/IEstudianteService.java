@@ -1,9 +1,13 @@
 package com.universidad.service; // Define el paquete al que pertenece esta interfaz
 
 import com.universidad.dto.EstudianteDTO; // Importa la clase EstudianteDTO del paquete dto
+import com.universidad.dto.ImportacionEstudiantesDTO;
+import com.universidad.dto.PaginaDTO;
 import com.universidad.model.Estudiante;
 import com.universidad.model.Materia;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List; // Importa la interfaz List para manejar listas
 
 public interface IEstudianteService { // Define la interfaz IEstudianteService
@@ -14,6 +18,16 @@ public interface IEstudianteService { // Define la interfaz IEstudianteService
      */  
     List<EstudianteDTO> obtenerTodosLosEstudiantes(); // Método para obtener una lista de todos los EstudianteDTO
 
+    /**
+     * Obtiene una página de estudiantes ordenados por ID (paginación por cursor).
+     * @param after ID del último estudiante de la página anterior; null para la primera página.
+     * @param limite Número máximo de estudiantes de la página.
+     * @param estado Filtro opcional por estado (sin distinguir mayúsculas).
+     * @return Página de EstudianteDTO.
+     * @throws IllegalArgumentException si el límite está fuera de rango.
+     */
+    PaginaDTO<EstudianteDTO> obtenerPaginaEstudiantes(Long after, int limite, String estado);
+
     /**
      * Obtiene un estudiante activo.
      * @return Lista de EstudianteDTO activos.
@@ -43,6 +57,16 @@ public interface IEstudianteService { // Define la interfaz IEstudianteService
      * @return EstudianteDTO creado.
      */
     EstudianteDTO crearEstudiante(EstudianteDTO estudianteDTO); // Método para crear un nuevo estudiante
+
+    /**
+     * Importa estudiantes en bloque desde un archivo CSV (con cabecera) o NDJSON.
+     * Las filas inválidas o duplicadas se rechazan individualmente sin detener la importación.
+     * @param formato Formato del archivo.
+     * @param entrada Contenido del archivo.
+     * @param usuario Usuario que realiza la importación (usuario de alta por defecto).
+     * @return Resumen de la importación con el detalle de las filas rechazadas.
+     */
+    ImportacionEstudiantesDTO importarEstudiantes(IExportacionService.Formato formato, InputStream entrada, String usuario) throws IOException;
     
     /**
      * Actualiza un estudiante existente.
@@ -0,0 +1,56 @@
+package com.universidad.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IExportacionService {
+
+    /**
+     * Formatos de exportación soportados.
+     */
+    enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Obtiene el formato a partir del parámetro de la petición (sin distinguir mayúsculas).
+         * @throws IllegalArgumentException si el formato no es soportado.
+         */
+        public static Formato desde(String valor) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + valor + " (use ndjson o csv)");
+        }
+    }
+
+    /**
+     * Escribe todas las inscripciones (opcionalmente de un período académico) en la salida,
+     * fila por fila y con memoria constante.
+     */
+    void exportarInscripciones(Formato formato, String periodoAcademico, OutputStream salida) throws IOException;
+
+    /**
+     * Escribe todos los estudiantes (opcionalmente con un estado dado) en la salida,
+     * fila por fila y con memoria constante.
+     */
+    void exportarEstudiantes(Formato formato, String estado, OutputStream salida) throws IOException;
+}
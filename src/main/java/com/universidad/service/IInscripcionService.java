@@ -1,19 +1,25 @@
 package com.universidad.service;
 
 import java.util.List;
+import java.util.Map;
 
 import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.InscripcionLoteResultadoDTO;
+import com.universidad.dto.PaginaDTO;
 
 public interface IInscripcionService {
     List<InscripcionDTO> obtenerTodasLasInscripciones();
+    PaginaDTO<InscripcionDTO> obtenerPaginaInscripciones(Long after, int limite, String estado, String periodoAcademico);
     InscripcionDTO obtenerInscripcionPorId(Long id);
     List<InscripcionDTO> obtenerInscripcionesPorEstudiante(Long estudianteId);
     List<InscripcionDTO> obtenerInscripcionesPorMateria(Long materiaId);
     InscripcionDTO crearInscripcion(InscripcionDTO inscripcionDTO);
+    List<InscripcionLoteResultadoDTO> crearInscripcionesEnLote(List<InscripcionDTO> inscripcionesDTO);
     InscripcionDTO actualizarInscripcion(Long id, InscripcionDTO inscripcionDTO);
     void eliminarInscripcion(Long id);
     InscripcionDTO actualizarEstadoInscripcion(Long id, String estado);
     InscripcionDTO registrarCalificacion(Long id, Integer calificacion);
+    List<InscripcionDTO> registrarCalificaciones(Long materiaId, Map<Long, Integer> calificaciones);
     boolean verificarDisponibilidadMateria(Long materiaId);
     boolean verificarCupoEstudiante(Long estudianteId);
     boolean verificarPrerequisitos(Long estudianteId, Long materiaId);
@@ -1,14 +1,19 @@
 package com.universidad.service;
 
 import com.universidad.dto.MateriaDTO;
+import com.universidad.dto.PaginaDTO;
 import com.universidad.model.Materia;
 import java.util.List;
 
 public interface IMateriaService {
     List<MateriaDTO> obtenerTodasLasMaterias();
+    PaginaDTO<MateriaDTO> obtenerPaginaMaterias(Long after, int limite);
     MateriaDTO obtenerMateriaPorId(Long id);
     MateriaDTO obtenerMateriaPorCodigoUnico(String codigoUnico);
     MateriaDTO crearMateria(MateriaDTO materia);
     MateriaDTO actualizarMateria(Long id, MateriaDTO materia);
     void eliminarMateria(Long id);
+    boolean formariaCirculo(Long materiaId, Long prerequisitoId);
+    List<Long> obtenerCierrePrerequisitos(Long materiaId);
+    List<Long> obtenerMateriasDesbloqueadas(Long materiaId);
 }
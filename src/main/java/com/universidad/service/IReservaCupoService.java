@@ -0,0 +1,11 @@
+package com.universidad.service;
+
+public interface IReservaCupoService {
+    int MAX_ESTUDIANTES_POR_MATERIA = 30;
+
+    boolean reservarCupo(Long materiaId);
+    void liberarCupo(Long materiaId);
+    void liberarCupos(Long materiaId, int cantidad);
+    void ajustarPorCambioDeEstado(Long materiaId, String estadoAnterior, String estadoNuevo);
+    int reconciliarCupos();
+}
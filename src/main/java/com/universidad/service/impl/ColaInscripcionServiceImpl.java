@@ -0,0 +1,215 @@
+package com.universidad.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.SolicitudInscripcionDTO;
+import com.universidad.service.IColaInscripcionService;
+import com.universidad.service.IInscripcionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cola de inscripciones para los picos de apertura de inscripciones.
+ * Las solicitudes se aceptan en colas acotadas particionadas por materia; cada partición la atiende
+ * un único trabajador, de modo que las inscripciones de una misma materia se procesan en serie
+ * (sin competir por la fila de cupos) y el cliente recibe un ticket para consultar el resultado.
+ * Cuando una partición está llena la solicitud se rechaza en lugar de acumular hilos esperando.
+ */
+@Service
+public class ColaInscripcionServiceImpl implements IColaInscripcionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColaInscripcionServiceImpl.class);
+
+    private static final String PENDIENTE = "pendiente";
+    private static final String PROCESANDO = "procesando";
+    private static final String COMPLETADA = "completada";
+    private static final String RECHAZADA = "rechazada";
+
+    @Autowired
+    private IInscripcionService inscripcionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.inscripciones.cola.trabajadores:8}")
+    private int trabajadores;
+
+    @Value("${app.inscripciones.cola.capacidad-por-particion:1000}")
+    private int capacidadPorParticion;
+
+    @Value("${app.inscripciones.cola.retencion-resultados:PT15M}")
+    private Duration retencionResultados;
+
+    private final List<BlockingQueue<Solicitud>> particiones = new ArrayList<>();
+    private final Map<String, Solicitud> solicitudes = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    private Timer tiempoEspera;
+    private Counter rechazos;
+    private Counter completadas;
+    private Counter rechazadas;
+
+    @PostConstruct
+    public void iniciar() {
+        tiempoEspera = Timer.builder("inscripciones.cola.espera")
+                .description("Tiempo que una solicitud pasa en la cola antes de procesarse")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rechazos = Counter.builder("inscripciones.cola.rechazos")
+                .description("Solicitudes rechazadas por cola llena")
+                .register(meterRegistry);
+        completadas = Counter.builder("inscripciones.cola.procesadas").tag("resultado", COMPLETADA).register(meterRegistry);
+        rechazadas = Counter.builder("inscripciones.cola.procesadas").tag("resultado", RECHAZADA).register(meterRegistry);
+
+        executor = Executors.newFixedThreadPool(trabajadores, runnable -> {
+            Thread hilo = new Thread(runnable);
+            hilo.setName("cola-inscripciones-" + hilo.getId());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        for (int i = 0; i < trabajadores; i++) {
+            BlockingQueue<Solicitud> cola = new ArrayBlockingQueue<>(capacidadPorParticion);
+            particiones.add(cola);
+            Gauge.builder("inscripciones.cola.profundidad", cola, BlockingQueue::size)
+                    .description("Solicitudes pendientes en la partición")
+                    .tag("particion", String.valueOf(i))
+                    .register(meterRegistry);
+            executor.submit(() -> atenderParticion(cola));
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public SolicitudInscripcionDTO encolarInscripcion(InscripcionDTO inscripcionDTO) {
+        Solicitud solicitud = new Solicitud(UUID.randomUUID().toString(), inscripcionDTO.getEstudianteId(), inscripcionDTO);
+        // Todas las solicitudes de una materia caen en la misma partición
+        int particion = Math.floorMod(Objects.hashCode(inscripcionDTO.getMateriaId()), particiones.size());
+        solicitudes.put(solicitud.ticket, solicitud);
+        if (!particiones.get(particion).offer(solicitud)) {
+            solicitudes.remove(solicitud.ticket);
+            rechazos.increment();
+            return null; // Cola llena: el controlador responde 503
+        }
+        return solicitud.aDTO();
+    }
+
+    @Override
+    public CompletableFuture<SolicitudInscripcionDTO> consultarSolicitud(String ticket, long esperaMs) {
+        Solicitud solicitud = solicitudes.get(ticket);
+        if (solicitud == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (esperaMs <= 0 || solicitud.terminada.isDone()) {
+            return CompletableFuture.completedFuture(solicitud.aDTO());
+        }
+        // Espera larga sin ocupar un hilo: se completa al terminar la solicitud o al vencer el plazo
+        return solicitud.terminada.copy()
+                .completeOnTimeout(null, esperaMs, TimeUnit.MILLISECONDS)
+                .thenApply(ignorado -> solicitud.aDTO());
+    }
+
+    @Override
+    public Long obtenerEstudianteSolicitud(String ticket) {
+        Solicitud solicitud = solicitudes.get(ticket);
+        return solicitud != null ? solicitud.estudianteId : null;
+    }
+
+    // Descarta los resultados ya consultables durante más tiempo que la retención configurada
+    @Scheduled(fixedDelay = 60000)
+    public void purgarResultados() {
+        Instant limite = Instant.now().minus(retencionResultados);
+        solicitudes.values().removeIf(s -> s.finalizada != null && s.finalizada.isBefore(limite));
+    }
+
+    private void atenderParticion(BlockingQueue<Solicitud> cola) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Solicitud solicitud;
+            try {
+                solicitud = cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            tiempoEspera.record(Duration.between(solicitud.recibida, Instant.now()));
+            solicitud.estado = PROCESANDO;
+            try {
+                solicitud.inscripcion = inscripcionService.crearInscripcion(solicitud.inscripcionDTO);
+                solicitud.estado = COMPLETADA;
+                completadas.increment();
+            } catch (RuntimeException e) {
+                solicitud.error = e.getMessage();
+                solicitud.estado = RECHAZADA;
+                rechazadas.increment();
+                logger.debug("Solicitud {} rechazada: {}", solicitud.ticket, e.getMessage());
+            }
+            solicitud.finalizada = Instant.now();
+            solicitud.terminada.complete(null);
+        }
+    }
+
+    // Solicitud en curso; los campos mutables se escriben solo desde el trabajador de su partición
+    private static final class Solicitud {
+        final String ticket;
+        // Dueño de la solicitud, fijado al encolar: solo él (o un ADMIN) puede consultar el resultado
+        final Long estudianteId;
+        final InscripcionDTO inscripcionDTO;
+        final Instant recibida = Instant.now();
+        final CompletableFuture<Void> terminada = new CompletableFuture<>();
+        volatile String estado = PENDIENTE;
+        volatile InscripcionDTO inscripcion;
+        volatile String error;
+        volatile Instant finalizada;
+
+        Solicitud(String ticket, Long estudianteId, InscripcionDTO inscripcionDTO) {
+            this.ticket = ticket;
+            this.estudianteId = estudianteId;
+            this.inscripcionDTO = inscripcionDTO;
+        }
+
+        SolicitudInscripcionDTO aDTO() {
+            Instant fin = finalizada;
+            return SolicitudInscripcionDTO.builder()
+                    .ticket(ticket)
+                    .estado(estado)
+                    .estudianteId(estudianteId)
+                    .materiaId(inscripcionDTO.getMateriaId())
+                    .fechaSolicitud(LocalDateTime.ofInstant(recibida, ZoneId.systemDefault()))
+                    .fechaProceso(fin != null ? LocalDateTime.ofInstant(fin, ZoneId.systemDefault()) : null)
+                    .inscripcion(inscripcion)
+                    .error(error)
+                    .build();
+        }
+    }
+}
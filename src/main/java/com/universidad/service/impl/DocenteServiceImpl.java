@@ -1,6 +1,9 @@
 package com.universidad.service.impl;
 
+import com.universidad.cache.CacheIndexado;
+import com.universidad.cache.DimensionCache;
 import com.universidad.dto.DocenteDTO;
+import com.universidad.dto.PaginaDTO;
 import com.universidad.model.Docente;
 import com.universidad.model.Materia;
 import com.universidad.repository.DocenteRepository;
@@ -8,12 +11,15 @@ import com.universidad.repository.MateriaRepository;
 import com.universidad.service.IDocenteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,62 +31,73 @@ public class DocenteServiceImpl implements IDocenteService {
     @Autowired
     private MateriaRepository materiaRepository;
 
+    @Autowired
+    private CacheIndexado<DocenteDTO> cacheDocente; // Cache "docente": por ID y por número de empleado
+
     @Override
     @Cacheable(value = "docentes")
     public List<DocenteDTO> obtenerTodosLosDocentes() {
-        return docenteRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Dos consultas en total, sin importar cuántos docentes haya
+        return convertToDTOs(docenteRepository.findAll(), docenteRepository.findAllMateriaPairs());
+    }
+
+    @Override
+    @Cacheable(value = "docentesPagina", key = "#after + ':' + #limite + ':' + #departamento")
+    public PaginaDTO<DocenteDTO> obtenerPaginaDocentes(Long after, int limite, String departamento) {
+        PaginaDTO.validarLimite(limite);
+        List<Docente> filas = docenteRepository.findPagina(after != null ? after : 0L, departamento,
+                PageRequest.ofSize(limite + 1));
+        return PaginaDTO.de(convertToDTOs(filas), limite, DocenteDTO::getId);
     }
 
     @Override
-    @Cacheable(value = "docente", key = "#id")
     public DocenteDTO obtenerDocentePorId(Long id) {
-        return docenteRepository.findById(id)
+        return cacheDocente.obtenerPorId(id, () -> docenteRepository.findById(id)
                 .map(this::convertToDTO)
-                .orElse(null);
+                .orElse(null));
     }
 
     @Override
-    @Cacheable(value = "docente", key = "#nroEmpleado")
     public DocenteDTO obtenerDocentePorNroEmpleado(String nroEmpleado) {
-        return docenteRepository.findByNroEmpleado(nroEmpleado)
+        return cacheDocente.obtenerPor(DimensionCache.NRO_EMPLEADO, nroEmpleado, () -> docenteRepository.findByNroEmpleado(nroEmpleado)
                 .map(this::convertToDTO)
-                .orElse(null);
+                .orElse(null));
     }
 
     @Override
-    @CachePut(value = "docente", key = "#result.id")
-    @CacheEvict(value = "docentes", allEntries = true)
+    @CacheEvict(value = {"docentes", "docentesPagina"}, allEntries = true)
     public DocenteDTO crearDocente(DocenteDTO docenteDTO) {
         Docente docente = convertToEntity(docenteDTO);
         Docente savedDocente = docenteRepository.save(docente);
-        return convertToDTO(savedDocente);
+        DocenteDTO creado = convertToDTO(savedDocente);
+        cacheDocente.guardar(creado);
+        return creado;
     }
 
     @Override
-    @CachePut(value = "docente", key = "#id")
-    @CacheEvict(value = "docentes", allEntries = true)
+    @CacheEvict(value = {"docentes", "docentesPagina"}, allEntries = true)
     public DocenteDTO actualizarDocente(Long id, DocenteDTO docenteDTO) {
         return docenteRepository.findById(id)
                 .map(existingDocente -> {
                     updateEntityFromDTO(existingDocente, docenteDTO);
                     Docente updatedDocente = docenteRepository.save(existingDocente);
-                    return convertToDTO(updatedDocente);
+                    DocenteDTO actualizado = convertToDTO(updatedDocente);
+                    cacheDocente.guardar(actualizado); // Refresca la entrada por ID y por número de empleado
+                    return actualizado;
                 })
                 .orElse(null);
     }
 
     @Override
-    @CacheEvict(value = {"docente", "docentes"}, allEntries = true)
+    @CacheEvict(value = {"docentes", "docentesPagina"}, allEntries = true)
     public void eliminarDocente(Long id) {
         docenteRepository.deleteById(id);
+        cacheDocente.invalidar(id);
     }
 
     @Override
     @Transactional
-    @CachePut(value = "docente", key = "#docenteId")
-    @CacheEvict(value = {"docentes", "materias"}, allEntries = true)
+    @CacheEvict(value = {"docentes", "docentesPagina", "materias", "materiasPagina"}, allEntries = true)
     public DocenteDTO asignarMateriasADocente(Long docenteId, List<Long> materiasIds) {
         Docente docente = docenteRepository.findById(docenteId)
                 .orElseThrow(() -> new RuntimeException("Docente no encontrado"));
@@ -89,18 +106,23 @@ public class DocenteServiceImpl implements IDocenteService {
         docente.setMaterias(materias);
         
         Docente updatedDocente = docenteRepository.save(docente);
-        return convertToDTO(updatedDocente);
+        DocenteDTO actualizado = convertToDTO(updatedDocente);
+        cacheDocente.guardar(actualizado);
+        return actualizado;
     }
 
     @Override
     @Cacheable(value = "docentesPorMateria", key = "#materiaId")
     public List<DocenteDTO> obtenerDocentesPorMateria(Long materiaId) {
-        return docenteRepository.findByMaterias_Id(materiaId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(docenteRepository.findByMaterias_Id(materiaId));
     }
 
     private DocenteDTO convertToDTO(Docente docente) {
+        return convertToDTO(docente, docente.getMaterias() != null ?
+                docente.getMaterias().stream().map(Materia::getId).collect(Collectors.toList()) : null);
+    }
+
+    private DocenteDTO convertToDTO(Docente docente, List<Long> materiasAsignadas) {
         return DocenteDTO.builder()
                 .id(docente.getId())
                 .nombre(docente.getNombre())
@@ -109,11 +131,32 @@ public class DocenteServiceImpl implements IDocenteService {
                 .fechaNacimiento(docente.getFechaNacimiento())
                 .nroEmpleado(docente.getNroEmpleado())
                 .departamento(docente.getDepartamento())
-                .materiasAsignadas(docente.getMaterias() != null ? 
-                    docente.getMaterias().stream().map(Materia::getId).collect(Collectors.toList()) : null)
+                .materiasAsignadas(materiasAsignadas)
                 .build();
     }
 
+    // Convierte un listado leyendo las materias asignadas de todos sus docentes en una sola consulta
+    private List<DocenteDTO> convertToDTOs(List<Docente> docentes) {
+        if (docentes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return convertToDTOs(docentes, docenteRepository.findMateriaPairsByDocenteIdIn(
+                docentes.stream().map(Docente::getId).collect(Collectors.toList())));
+    }
+
+    // Convierte un listado tomando las materias asignadas de los pares (docente_id, materia_id) ya leídos,
+    // en lugar de inicializar la colección de cada docente (una consulta extra por fila)
+    private List<DocenteDTO> convertToDTOs(List<Docente> docentes, List<Object[]> pares) {
+        Map<Long, List<Long>> materiasPorDocente = new HashMap<>();
+        for (Object[] par : pares) {
+            materiasPorDocente.computeIfAbsent(((Number) par[0]).longValue(), k -> new ArrayList<>())
+                    .add(((Number) par[1]).longValue());
+        }
+        return docentes.stream()
+                .map(docente -> convertToDTO(docente, materiasPorDocente.getOrDefault(docente.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
     private Docente convertToEntity(DocenteDTO docenteDTO) {
         return Docente.builder()
                 .id(docenteDTO.getId())
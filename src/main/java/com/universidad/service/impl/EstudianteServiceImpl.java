@@ -1,31 +1,84 @@
 package com.universidad.service.impl; // Define el paquete al que pertenece esta clase
 
+import com.universidad.cache.CacheIndexado;
+import com.universidad.cache.DimensionCache;
 import com.universidad.dto.EstudianteDTO; // Importa la clase EstudianteDTO del paquete dto
+import com.universidad.dto.ImportacionEstudiantesDTO;
+import com.universidad.dto.PaginaDTO;
+import com.universidad.model.EstadoEstudiante;
 import com.universidad.model.Estudiante; // Importa la clase Estudiante del paquete model
 import com.universidad.model.Materia;
 import com.universidad.repository.EstudianteRepository; // Importa la clase EstudianteRepository del paquete repository
 import com.universidad.service.IEstudianteService; // Importa la interfaz IEstudianteService del paquete service
+import com.universidad.service.IExportacionService;
 import com.universidad.validation.EstudianteValidator; // Importa la clase EstudianteValidator del paquete validation
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired; // Importa la anotación Autowired de Spring
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service; // Importa la anotación Service de Spring
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List; // Importa la interfaz List para manejar listas
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors; // Importa la clase Collectors para manejar colecciones
 
 @Service // Anotación que indica que esta clase es un servicio de Spring
 public class EstudianteServiceImpl implements IEstudianteService { // Define la clase EstudianteServiceImpl que implementa la interfaz IEstudianteService
 
+    private static final Logger logger = LoggerFactory.getLogger(EstudianteServiceImpl.class);
+
+    // Filas por bloque de importación: una consulta de unicidad por campo y una transacción por bloque
+    private static final int TAMANO_BLOQUE_IMPORTACION = 1000;
+
     @Autowired
     private EstudianteRepository estudianteRepository; // Inyección de dependencias del repositorio de estudiantes
 
     @Autowired // Inyección de dependencias del validador de estudiantes
     private EstudianteValidator estudianteValidator; // Declara una variable para el validador de estudiantes
+
+    @Autowired
+    private CacheIndexado<EstudianteDTO> cacheEstudiante; // Cache "estudiante": por ID y por número de inscripción
+
+    // Dependencias de la importación masiva
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
     
     public EstudianteServiceImpl(EstudianteRepository estudianteRepository, EstudianteValidator estudianteValidator) {
         this.estudianteRepository = estudianteRepository;
@@ -46,24 +99,33 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     }
 
     @Override
-    @Cacheable(value = "estudiante", key = "#numeroInscripcion")
+    @Cacheable(value = "estudiantesPagina", key = "#after + ':' + #limite + ':' + #estado")
+    public PaginaDTO<EstudianteDTO> obtenerPaginaEstudiantes(Long after, int limite, String estado) {
+        PaginaDTO.validarLimite(limite); // Valida el tamaño de página
+        // Lee una fila de más para saber si existe una página siguiente; el filtro se aplica en SQL
+        List<EstudianteDTO> estudiantes = estudianteRepository.findPagina(after != null ? after : 0L,
+                        EstadoEstudiante.normalizar(estado), PageRequest.ofSize(limite + 1)).stream()
+                .map(this::convertToDTO) // Convierte cada Estudiante a EstudianteDTO
+                .collect(Collectors.toList());
+        return PaginaDTO.de(estudiantes, limite, EstudianteDTO::getId);
+    }
+
+    @Override
     public EstudianteDTO obtenerEstudiantePorNumeroInscripcion(String numeroInscripcion) {
-        // Busca un estudiante por su número de inscripción y lo convierte a DTO
-        Estudiante estudiante = estudianteRepository.findByNumeroInscripcion(numeroInscripcion); // Busca el estudiante por su número de inscripción
-        return convertToDTO(estudiante); // Convierte el Estudiante a EstudianteDTO y lo retorna
+        // El número de inscripción se resuelve al ID en el cache; la entrada del estudiante es la misma que se refresca al actualizarlo
+        return cacheEstudiante.obtenerPor(DimensionCache.NUMERO_INSCRIPCION, numeroInscripcion, () -> {
+            Estudiante estudiante = estudianteRepository.findByNumeroInscripcion(numeroInscripcion); // Busca el estudiante por su número de inscripción
+            return estudiante != null ? convertToDTO(estudiante) : null; // Convierte el Estudiante a EstudianteDTO y lo retorna
+        });
     }
 
     @Override
     @Cacheable(value = "estudiantesActivos")
     public List<EstudianteDTO> obtenerEstudianteActivo() { // Método para obtener una lista de estudiantes activos
-        // Busca todos los estudiantes activos y los convierte a DTO
-        return estudianteRepository.findAll().stream() // Obtiene todos los estudiantes de la base de datos
-                .filter(estudiante -> "activo".equalsIgnoreCase(estudiante.getEstado())) // Filtra los estudiantes activos
-                .map(this::convertToDTO) // Convierte cada Estudiante a EstudianteDTO
-                .collect(Collectors.toList()); // Recoge los resultados en una lista
+        // El filtro se resuelve en SQL (con el índice de estado) y el resultado se proyecta directamente a DTO
+        return estudianteRepository.findDTOByEstado(EstadoEstudiante.ACTIVO.getValor());
     }
 
-
     @Override
     @Cacheable(value = "materiasEstudiante", key = "#estudianteId")
     public List<Materia> obtenerMateriasDeEstudiante(Long estudianteId) { // Método para obtener las materias de un estudiante por su ID
@@ -74,8 +136,7 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
     }
 
     @Override
-    @CachePut(value = "estudiante", key = "#result.numeroInscripcion")
-    @CacheEvict(value = {"estudiantes", "estudiantesActivos"}, allEntries = true)
+    @CacheEvict(value = {"estudiantes", "estudiantesPagina", "estudiantesActivos"}, allEntries = true)
     public EstudianteDTO crearEstudiante(EstudianteDTO estudianteDTO) { // Método para crear un nuevo estudiante
         
         estudianteValidator.validacionCompletaEstudiante(estudianteDTO); // Valida el estudiante usando el validador
@@ -83,12 +144,13 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         // Convierte el DTO a entidad, guarda el estudiante y lo convierte de nuevo a DTO
         Estudiante estudiante = convertToEntity(estudianteDTO); // Convierte el EstudianteDTO a Estudiante
         Estudiante estudianteGuardado = estudianteRepository.save(estudiante); // Guarda el estudiante en la base de datos
-        return convertToDTO(estudianteGuardado); // Convierte el Estudiante guardado a EstudianteDTO y lo retorna
+        EstudianteDTO creado = convertToDTO(estudianteGuardado); // Convierte el Estudiante guardado a EstudianteDTO
+        cacheEstudiante.guardar(creado); // Lo deja en el cache por ID y por número de inscripción
+        return creado;
     }
 
     @Override
-    @CachePut(value = "estudiante", key = "#id")
-    @CacheEvict(value = {"estudiantes", "estudiantesActivos"}, allEntries = true)
+    @CacheEvict(value = {"estudiantes", "estudiantesPagina", "estudiantesActivos"}, allEntries = true)
     public EstudianteDTO actualizarEstudiante(Long id, EstudianteDTO estudianteDTO) { // Método para actualizar un estudiante existente
         // Busca el estudiante por su ID, actualiza sus datos y lo guarda de nuevo
         Estudiante estudianteExistente = estudianteRepository.findById(id)
@@ -102,21 +164,239 @@ public class EstudianteServiceImpl implements IEstudianteService { // Define la
         estudianteExistente.setFechaModificacion(LocalDate.now()); // Actualiza la fecha de modificación
 
         Estudiante estudianteActualizado = estudianteRepository.save(estudianteExistente); // Guarda el estudiante actualizado en la base de datos
-        return convertToDTO(estudianteActualizado); // Convierte el Estudiante actualizado a EstudianteDTO y lo retorna
+        EstudianteDTO actualizado = convertToDTO(estudianteActualizado); // Convierte el Estudiante actualizado a EstudianteDTO
+        cacheEstudiante.guardar(actualizado); // Refresca todas sus búsquedas (y descarta el número de inscripción anterior)
+        return actualizado;
     }
 
     @Override
-    @CacheEvict(value = {"estudiante", "estudiantes", "estudiantesActivos"}, allEntries = true)
+    @CacheEvict(value = {"estudiantes", "estudiantesPagina", "estudiantesActivos"}, allEntries = true)
     public EstudianteDTO eliminarEstudiante(Long id, EstudianteDTO estudianteDTO) { // Método para eliminar (de manera lógica) un estudiante por su ID
         Estudiante estudianteExistente = estudianteRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Estudiante no encontrado")); // Lanza una excepción si el estudiante no se encuentra
-        estudianteExistente.setEstado("inactivo"); // Actualiza el estado a inactivo
+        estudianteExistente.setEstado(EstadoEstudiante.INACTIVO.getValor()); // Actualiza el estado a inactivo
         estudianteExistente.setUsuarioBaja("admin"); // Asigna el usuario que dio de baja al estudiante
         estudianteExistente.setFechaBaja(LocalDate.now()); // Actualiza la fecha de baja
         estudianteExistente.setMotivoBaja(estudianteDTO.getMotivoBaja()); // Actualiza el motivo de baja
 
         Estudiante estudianteInactivo = estudianteRepository.save(estudianteExistente); // Guarda el estudiante inactivo en la base de datos
-        return convertToDTO(estudianteInactivo); // Convierte el Estudiante inactivo a EstudianteDTO y lo retorna
+        EstudianteDTO inactivo = convertToDTO(estudianteInactivo); // Convierte el Estudiante inactivo a EstudianteDTO
+        cacheEstudiante.guardar(inactivo); // La baja es lógica: se refresca la entrada con el nuevo estado
+        return inactivo;
+    }
+
+    @Override
+    public ImportacionEstudiantesDTO importarEstudiantes(IExportacionService.Formato formato, InputStream entrada, String usuario) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        List<ImportacionEstudiantesDTO.ErrorFila> errores = new ArrayList<>();
+        Set<String> emailsVistos = new HashSet<>(); // Para detectar repetidos dentro del mismo archivo
+        Set<String> numerosVistos = new HashSet<>();
+        List<FilaImportacion> bloque = new ArrayList<>(TAMANO_BLOQUE_IMPORTACION);
+        List<String> cabecera = null;
+        long numeroLinea = 0;
+        int total = 0;
+        int importados = 0;
+
+        // Una sola invalidación al terminar, también si la lectura falla a mitad: los bloques ya guardados
+        // están confirmados y las listas en cache no deben seguir sin ellos
+        try {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                if (formato == IExportacionService.Formato.CSV && cabecera == null) {
+                    cabecera = dividirCsv(linea);
+                    continue;
+                }
+                total++;
+                EstudianteDTO estudianteDTO;
+                try {
+                    estudianteDTO = formato == IExportacionService.Formato.CSV
+                            ? leerFilaCsv(cabecera, linea)
+                            : objectMapper.readValue(linea, EstudianteDTO.class);
+                } catch (IOException | IllegalArgumentException e) {
+                    errores.add(errorDeFila(numeroLinea, null, "Fila con formato inválido: " + e.getMessage()));
+                    continue;
+                }
+                completarValoresDeImportacion(estudianteDTO, usuario);
+                String error = validarFilaImportacion(estudianteDTO, emailsVistos, numerosVistos);
+                if (error != null) {
+                    errores.add(errorDeFila(numeroLinea, estudianteDTO, error));
+                    continue;
+                }
+                bloque.add(new FilaImportacion(numeroLinea, estudianteDTO));
+                if (bloque.size() == TAMANO_BLOQUE_IMPORTACION) {
+                    importados += importarBloque(bloque, errores);
+                    bloque.clear();
+                }
+            }
+            if (!bloque.isEmpty()) {
+                importados += importarBloque(bloque, errores);
+            }
+        } finally {
+            if (importados > 0) {
+                invalidarListasDeEstudiantes();
+            }
+        }
+
+        errores.sort(Comparator.comparingLong(ImportacionEstudiantesDTO.ErrorFila::getFila));
+        logger.info("Importación de estudiantes: {} filas, {} importados, {} rechazados", total, importados, errores.size());
+        return ImportacionEstudiantesDTO.builder()
+                .totalFilas(total)
+                .importados(importados)
+                .rechazados(errores.size())
+                .errores(errores)
+                .build();
+    }
+
+    // Verifica la unicidad de todo el bloque con una consulta IN por campo y guarda los válidos en una transacción
+    private int importarBloque(List<FilaImportacion> bloque, List<ImportacionEstudiantesDTO.ErrorFila> errores) {
+        Set<String> emailsExistentes = new HashSet<>(estudianteRepository.findEmailsExistentes(
+                bloque.stream().map(fila -> fila.estudiante().getEmail()).collect(Collectors.toList())));
+        Set<String> numerosExistentes = new HashSet<>(estudianteRepository.findNumerosInscripcionExistentes(
+                bloque.stream().map(fila -> fila.estudiante().getNumeroInscripcion()).collect(Collectors.toList())));
+
+        List<FilaImportacion> aceptadas = new ArrayList<>();
+        List<Estudiante> nuevos = new ArrayList<>();
+        for (FilaImportacion fila : bloque) {
+            EstudianteDTO estudianteDTO = fila.estudiante();
+            if (emailsExistentes.contains(estudianteDTO.getEmail())) {
+                errores.add(errorDeFila(fila.linea(), estudianteDTO, "Ya existe un usuario con este email"));
+            } else if (numerosExistentes.contains(estudianteDTO.getNumeroInscripcion())) {
+                errores.add(errorDeFila(fila.linea(), estudianteDTO, "Ya existe un estudiante con este número de inscripción"));
+            } else {
+                estudianteDTO.setId(null); // Los IDs siempre los genera la base de datos
+                aceptadas.add(fila);
+                nuevos.add(convertToEntity(estudianteDTO));
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // Un bloque por transacción: los INSERT se agrupan en lotes JDBC y el contexto de persistencia
+            // se vacía al terminar, así la memoria no crece con el tamaño del archivo
+            transactionTemplate.executeWithoutResult(estado -> {
+                estudianteRepository.saveAll(nuevos);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return nuevos.size();
+        } catch (RuntimeException e) {
+            // Solo ocurre si otra operación insertó los mismos datos mientras tanto: se rechaza el bloque completo
+            logger.warn("No se pudo guardar un bloque de la importación: {}", e.getMessage());
+            for (FilaImportacion fila : aceptadas) {
+                errores.add(errorDeFila(fila.linea(), fila.estudiante(), "No se pudo guardar el bloque: " + e.getMessage()));
+            }
+            return 0;
+        }
+    }
+
+    // Vacía las listas de estudiantes en cache (TwoLevelCache avisa a los demás nodos)
+    private void invalidarListasDeEstudiantes() {
+        for (String nombre : List.of("estudiantes", "estudiantesPagina", "estudiantesActivos")) {
+            Cache cache = cacheManager.getCache(nombre);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // Aplica las mismas validaciones que el alta individual, salvo la unicidad, que se verifica por bloques
+    private String validarFilaImportacion(EstudianteDTO estudianteDTO, Set<String> emailsVistos, Set<String> numerosVistos) {
+        Set<ConstraintViolation<EstudianteDTO>> violaciones = validator.validate(estudianteDTO);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            estudianteValidator.validacionSinConsultas(estudianteDTO);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (!emailsVistos.add(estudianteDTO.getEmail())) {
+            return "Email repetido en el archivo";
+        }
+        if (!numerosVistos.add(estudianteDTO.getNumeroInscripcion())) {
+            return "Número de inscripción repetido en el archivo";
+        }
+        return null;
+    }
+
+    // Valores por defecto de las filas importadas: activo, dado de alta hoy por quien realiza la importación
+    private static void completarValoresDeImportacion(EstudianteDTO estudianteDTO, String usuario) {
+        if (estudianteDTO.getEstado() == null || estudianteDTO.getEstado().isBlank()) {
+            estudianteDTO.setEstado(EstadoEstudiante.ACTIVO.getValor());
+        } else {
+            estudianteDTO.setEstado(EstadoEstudiante.normalizar(estudianteDTO.getEstado()));
+        }
+        if (estudianteDTO.getUsuarioAlta() == null || estudianteDTO.getUsuarioAlta().isBlank()) {
+            estudianteDTO.setUsuarioAlta(usuario);
+        }
+        if (estudianteDTO.getFechaAlta() == null) {
+            estudianteDTO.setFechaAlta(LocalDate.now());
+        }
+    }
+
+    // Convierte una fila CSV en DTO usando los nombres de columna de la cabecera (celdas vacías = null)
+    private EstudianteDTO leerFilaCsv(List<String> cabecera, String linea) {
+        List<String> valores = dividirCsv(linea);
+        if (valores.size() != cabecera.size()) {
+            throw new IllegalArgumentException("se esperaban " + cabecera.size() + " columnas y hay " + valores.size());
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String valor = valores.get(i);
+            campos.put(cabecera.get(i).trim(), valor.isEmpty() ? null : valor);
+        }
+        return objectMapper.convertValue(campos, EstudianteDTO.class);
+    }
+
+    // Separa una línea CSV respetando los valores entre comillas (RFC 4180, sin saltos de línea dentro de un valor)
+    private static List<String> dividirCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    private static ImportacionEstudiantesDTO.ErrorFila errorDeFila(long linea, EstudianteDTO estudianteDTO, String error) {
+        return ImportacionEstudiantesDTO.ErrorFila.builder()
+                .fila(linea)
+                .numeroInscripcion(estudianteDTO != null ? estudianteDTO.getNumeroInscripcion() : null)
+                .email(estudianteDTO != null ? estudianteDTO.getEmail() : null)
+                .error(error)
+                .build();
+    }
+
+    // Fila del archivo ya validada, pendiente de verificar su unicidad y guardarse
+    private record FilaImportacion(long linea, EstudianteDTO estudiante) {
     }
 
     @Transactional
@@ -4,6 +4,7 @@ import com.universidad.model.EvaluacionDocente;
 import com.universidad.model.Docente;
 import com.universidad.repository.EvaluacionDocenteRepository;
 import com.universidad.repository.DocenteRepository;
+import com.universidad.registro.security.Autorizacion;
 import com.universidad.service.IEvaluacionDocenteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,8 @@ public class EvaluacionDocenteServiceImpl implements IEvaluacionDocenteService {
     private EvaluacionDocenteRepository evaluacionDocenteRepository;
     @Autowired
     private DocenteRepository docenteRepository;
+    @Autowired
+    private Autorizacion autorizacion;
 
     @Override
     public EvaluacionDocente crearEvaluacion(EvaluacionDocente evaluacion) {
@@ -37,5 +40,6 @@ public class EvaluacionDocenteServiceImpl implements IEvaluacionDocenteService {
     @Override
     public void eliminarEvaluacion(Long id) {
         evaluacionDocenteRepository.deleteById(id);
+        autorizacion.olvidarEvaluacion(id);
     }
 }
@@ -0,0 +1,139 @@
+package com.universidad.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.universidad.dto.EstudianteDTO;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.model.EstadoEstudiante;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.repository.InscripcionRepository;
+import com.universidad.service.IExportacionService;
+
+/**
+ * Exportación masiva de inscripciones y estudiantes.
+ * Las filas se leen de un cursor de base de datos (proyectadas a DTO, sin entidades administradas)
+ * y se escriben directamente en la respuesta, vaciando el buffer cada cierto número de filas:
+ * la memoria usada no depende del tamaño de la tabla.
+ */
+@Service
+public class ExportacionServiceImpl implements IExportacionService {
+
+    // Cada cuántas filas se envía al cliente lo ya escrito
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    private static final List<Columna<InscripcionDTO>> COLUMNAS_INSCRIPCION = List.of(
+            new Columna<>("id", InscripcionDTO::getId),
+            new Columna<>("estudianteId", InscripcionDTO::getEstudianteId),
+            new Columna<>("materiaId", InscripcionDTO::getMateriaId),
+            new Columna<>("fechaInscripcion", InscripcionDTO::getFechaInscripcion),
+            new Columna<>("estado", InscripcionDTO::getEstado),
+            new Columna<>("calificacion", InscripcionDTO::getCalificacion),
+            new Columna<>("periodoAcademico", InscripcionDTO::getPeriodoAcademico),
+            new Columna<>("usuarioRegistro", InscripcionDTO::getUsuarioRegistro));
+
+    private static final List<Columna<EstudianteDTO>> COLUMNAS_ESTUDIANTE = List.of(
+            new Columna<>("id", EstudianteDTO::getId),
+            new Columna<>("nombre", EstudianteDTO::getNombre),
+            new Columna<>("apellido", EstudianteDTO::getApellido),
+            new Columna<>("email", EstudianteDTO::getEmail),
+            new Columna<>("fechaNacimiento", EstudianteDTO::getFechaNacimiento),
+            new Columna<>("numeroInscripcion", EstudianteDTO::getNumeroInscripcion),
+            new Columna<>("estado", EstudianteDTO::getEstado),
+            new Columna<>("usuarioAlta", EstudianteDTO::getUsuarioAlta),
+            new Columna<>("fechaAlta", EstudianteDTO::getFechaAlta),
+            new Columna<>("usuarioModificacion", EstudianteDTO::getUsuarioModificacion),
+            new Columna<>("fechaModificacion", EstudianteDTO::getFechaModificacion),
+            new Columna<>("usuarioBaja", EstudianteDTO::getUsuarioBaja),
+            new Columna<>("fechaBaja", EstudianteDTO::getFechaBaja),
+            new Columna<>("motivoBaja", EstudianteDTO::getMotivoBaja));
+
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true) // El cursor solo puede recorrerse dentro de una transacción
+    public void exportarInscripciones(Formato formato, String periodoAcademico, OutputStream salida) throws IOException {
+        try (Stream<InscripcionDTO> filas = inscripcionRepository.streamParaExportar(periodoAcademico)) {
+            escribir(filas, formato, COLUMNAS_INSCRIPCION, salida);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarEstudiantes(Formato formato, String estado, OutputStream salida) throws IOException {
+        try (Stream<EstudianteDTO> filas = estudianteRepository.streamParaExportar(EstadoEstudiante.normalizar(estado))) {
+            escribir(filas, formato, COLUMNAS_ESTUDIANTE, salida);
+        }
+    }
+
+    private <T> void escribir(Stream<T> filas, Formato formato, List<Columna<T>> columnas, OutputStream salida) throws IOException {
+        // No se cierra el writer: el contenedor se encarga de cerrar el stream de la respuesta
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writer();
+        if (formato == Formato.CSV) {
+            writer.write(columnas.stream().map(Columna::nombre).collect(Collectors.joining(",")));
+            writer.write('\n');
+        }
+        long escritas = 0;
+        Iterator<T> iterador = filas.iterator();
+        while (iterador.hasNext()) {
+            T fila = iterador.next();
+            if (formato == Formato.NDJSON) {
+                writer.write(jsonWriter.writeValueAsString(fila));
+            } else {
+                escribirFilaCsv(writer, fila, columnas);
+            }
+            writer.write('\n');
+            if (++escritas % FILAS_POR_FLUSH == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static <T> void escribirFilaCsv(Writer writer, T fila, List<Columna<T>> columnas) throws IOException {
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object valor = columnas.get(i).valor().apply(fila);
+            if (valor != null) {
+                writer.write(escaparCsv(valor.toString()));
+            }
+        }
+    }
+
+    // Entrecomilla el valor si contiene separadores, comillas o saltos de línea (RFC 4180)
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    // Columna del CSV: nombre de la cabecera y cómo obtener el valor de cada fila
+    private record Columna<T>(String nombre, Function<T, Object> valor) {
+    }
+}
@@ -1,30 +1,49 @@
 package com.universidad.service.impl;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.universidad.dto.InscripcionDTO;
-import com.universidad.model.Estudiante;
+import com.universidad.dto.InscripcionLoteResultadoDTO;
+import com.universidad.dto.PaginaDTO;
+import com.universidad.graph.PrerequisiteGraph;
 import com.universidad.model.Inscripcion;
-import com.universidad.model.Materia;
 import com.universidad.repository.EstudianteRepository;
 import com.universidad.repository.InscripcionRepository;
 import com.universidad.repository.MateriaRepository;
 import com.universidad.service.IInscripcionService;
+import com.universidad.service.IReservaCupoService;
 
 @Service
 public class InscripcionServiceImpl implements IInscripcionService {
 
     private static final int MAX_MATERIAS_POR_ESTUDIANTE = 5;
-    private static final int MAX_ESTUDIANTES_POR_MATERIA = 30;
+    private static final int MAX_INSCRIPCIONES_POR_LOTE = 500;
+    private static final int CALIFICACION_MINIMA = 0;
+    private static final int CALIFICACION_MAXIMA = 100;
+    private static final int CALIFICACION_MINIMA_APROBACION = 60;
+
+    private static final Logger logger = LoggerFactory.getLogger(InscripcionServiceImpl.class);
 
     @Autowired
     private InscripcionRepository inscripcionRepository;
@@ -35,14 +54,34 @@ public class InscripcionServiceImpl implements IInscripcionService {
     @Autowired
     private MateriaRepository materiaRepository;
 
+    @Autowired
+    private IReservaCupoService reservaCupoService;
+
+    @Autowired
+    private PrerequisiteGraph prerequisiteGraph;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
-    @Cacheable(value = "inscripciones")
+    // Sin cache: la lista completa crece sin límite y cualquier inscripción la invalidaría entera
+    // (para recorrerla están la paginación por cursor y la exportación)
     public List<InscripcionDTO> obtenerTodasLasInscripciones() {
         return inscripcionRepository.findAll().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Cacheable(value = "inscripcionesPagina", key = "#after + ':' + #limite + ':' + #estado + ':' + #periodoAcademico")
+    public PaginaDTO<InscripcionDTO> obtenerPaginaInscripciones(Long after, int limite, String estado, String periodoAcademico) {
+        PaginaDTO.validarLimite(limite);
+        // Proyección directa a DTO: no se cargan el estudiante ni la materia de cada inscripción
+        List<InscripcionDTO> inscripciones = inscripcionRepository.findPagina(after != null ? after : 0L,
+                estado, periodoAcademico, PageRequest.ofSize(limite + 1));
+        return PaginaDTO.de(inscripciones, limite, InscripcionDTO::getId);
+    }
+
     @Override
     @Cacheable(value = "inscripcion", key = "#id")
     public InscripcionDTO obtenerInscripcionPorId(Long id) {
@@ -69,15 +108,17 @@ public class InscripcionServiceImpl implements IInscripcionService {
 
     @Override
     @Transactional
-    @CachePut(value = "inscripcion", key = "#result.id")
-    @CacheEvict(value = {"inscripciones", "inscripcionesPorEstudiante", "inscripcionesPorMateria"}, allEntries = true)
     public InscripcionDTO crearInscripcion(InscripcionDTO inscripcionDTO) {
-        // Validaciones
-        Estudiante estudiante = estudianteRepository.findById(inscripcionDTO.getEstudianteId())
-                .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
+        // Bloqueo corto de la fila del estudiante (no de la materia): las inscripciones simultáneas del mismo
+        // estudiante esperan a que termine esta, así las verificaciones de duplicado y de límite no compiten.
+        // El cupo de la materia se reserva al final de forma atómica, sin bloquearla
+        if (estudianteRepository.bloquearParaInscripcion(inscripcionDTO.getEstudianteId()).isEmpty()) {
+            throw new RuntimeException("Estudiante no encontrado");
+        }
         
-        Materia materia = materiaRepository.findById(inscripcionDTO.getMateriaId())
-                .orElseThrow(() -> new RuntimeException("Materia no encontrada"));
+        if (!materiaRepository.existsById(inscripcionDTO.getMateriaId())) {
+            throw new RuntimeException("Materia no encontrada");
+        }
         
         // Verificar si ya está inscrito en la materia
         if (inscripcionRepository.existsByEstudianteIdAndMateriaIdAndEstado(
@@ -87,11 +128,6 @@ public class InscripcionServiceImpl implements IInscripcionService {
             throw new RuntimeException("El estudiante ya está inscrito en esta materia");
         }
         
-        // Verificar cupos
-        if (!verificarDisponibilidadMateria(inscripcionDTO.getMateriaId())) {
-            throw new RuntimeException("No hay cupos disponibles en esta materia");
-        }
-        
         // Verificar límite de materias por estudiante
         if (!verificarCupoEstudiante(inscripcionDTO.getEstudianteId())) {
             throw new RuntimeException("El estudiante ha alcanzado el límite de materias permitidas");
@@ -102,100 +138,331 @@ public class InscripcionServiceImpl implements IInscripcionService {
             throw new RuntimeException("El estudiante no cumple con los prerequisitos para esta materia");
         }
         
+        // Reservar cupo: UPDATE condicional que solo tiene éxito si la materia no está llena.
+        // Si la inscripción falla después, el rollback de la transacción libera el cupo
+        if (!reservaCupoService.reservarCupo(inscripcionDTO.getMateriaId())) {
+            throw new RuntimeException("No hay cupos disponibles en esta materia");
+        }
+        
         Inscripcion inscripcion = new Inscripcion();
-        inscripcion.setEstudiante(estudiante);
-        inscripcion.setMateria(materia);
+        inscripcion.setEstudiante(estudianteRepository.getReferenceById(inscripcionDTO.getEstudianteId()));
+        inscripcion.setMateria(materiaRepository.getReferenceById(inscripcionDTO.getMateriaId()));
         inscripcion.setFechaInscripcion(LocalDate.now());
         inscripcion.setEstado("activo");
         inscripcion.setPeriodoAcademico(inscripcionDTO.getPeriodoAcademico());
         inscripcion.setUsuarioRegistro(inscripcionDTO.getUsuarioRegistro());
         
         Inscripcion savedInscripcion = inscripcionRepository.save(inscripcion);
-        return convertToDTO(savedInscripcion);
+        InscripcionDTO creada = convertToDTO(savedInscripcion);
+        invalidarListasTrasCommit(List.of(creada), true);
+        return creada;
+    }
+
+    @Override
+    @Transactional
+    public List<InscripcionLoteResultadoDTO> crearInscripcionesEnLote(List<InscripcionDTO> inscripcionesDTO) {
+        if (inscripcionesDTO.size() > MAX_INSCRIPCIONES_POR_LOTE) {
+            throw new IllegalArgumentException("El lote no puede tener más de " + MAX_INSCRIPCIONES_POR_LOTE + " inscripciones");
+        }
+
+        // Validaciones de existencia con una consulta por tipo de entidad para todo el lote
+        Set<Long> estudianteIds = inscripcionesDTO.stream().map(InscripcionDTO::getEstudianteId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> materiaIds = inscripcionesDTO.stream().map(InscripcionDTO::getMateriaId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        // Los estudiantes del lote quedan bloqueados (como en crearInscripcion) hasta el commit
+        Set<Long> estudiantesExistentes = estudianteIds.isEmpty() ? Collections.emptySet()
+                : new HashSet<>(estudianteRepository.bloquearParaInscripcion(estudianteIds));
+        Set<Long> materiasExistentes = materiaIds.isEmpty() ? Collections.emptySet()
+                : new HashSet<>(materiaRepository.findIdsByIdIn(materiaIds));
+
+        // Materias activas y aprobadas de todos los estudiantes del lote en una sola consulta
+        Map<Long, Set<Long>> activasPorEstudiante = new HashMap<>();
+        Map<Long, Set<Long>> aprobadasPorEstudiante = new HashMap<>();
+        if (!estudiantesExistentes.isEmpty()) {
+            for (Object[] fila : inscripcionRepository.findEstudianteMateriaEstadoByEstudianteIdIn(
+                    estudiantesExistentes, List.of("activo", "aprobado"))) {
+                Map<Long, Set<Long>> destino = "activo".equals(fila[2]) ? activasPorEstudiante : aprobadasPorEstudiante;
+                destino.computeIfAbsent((Long) fila[0], k -> new HashSet<>()).add((Long) fila[1]);
+            }
+        }
+
+        List<InscripcionLoteResultadoDTO> resultados = new ArrayList<>();
+        List<InscripcionLoteResultadoDTO> resultadosExitosos = new ArrayList<>();
+        List<Inscripcion> nuevas = new ArrayList<>();
+        for (int i = 0; i < inscripcionesDTO.size(); i++) {
+            InscripcionDTO dto = inscripcionesDTO.get(i);
+            String error = validarInscripcionDeLote(dto, estudiantesExistentes, materiasExistentes,
+                    activasPorEstudiante, aprobadasPorEstudiante);
+            if (error == null && !reservaCupoService.reservarCupo(dto.getMateriaId())) {
+                error = "No hay cupos disponibles en esta materia";
+            }
+
+            InscripcionLoteResultadoDTO resultado = InscripcionLoteResultadoDTO.builder()
+                    .indice(i)
+                    .estudianteId(dto.getEstudianteId())
+                    .materiaId(dto.getMateriaId())
+                    .exitoso(error == null)
+                    .error(error)
+                    .build();
+            resultados.add(resultado);
+            if (error != null) {
+                continue;
+            }
+
+            // La nueva inscripción cuenta para los siguientes elementos del mismo lote
+            activasPorEstudiante.computeIfAbsent(dto.getEstudianteId(), k -> new HashSet<>()).add(dto.getMateriaId());
+
+            Inscripcion inscripcion = new Inscripcion();
+            inscripcion.setEstudiante(estudianteRepository.getReferenceById(dto.getEstudianteId()));
+            inscripcion.setMateria(materiaRepository.getReferenceById(dto.getMateriaId()));
+            inscripcion.setFechaInscripcion(LocalDate.now());
+            inscripcion.setEstado("activo");
+            inscripcion.setPeriodoAcademico(dto.getPeriodoAcademico());
+            inscripcion.setUsuarioRegistro(dto.getUsuarioRegistro());
+            nuevas.add(inscripcion);
+            resultadosExitosos.add(resultado);
+        }
+
+        // Los IDs salen de la secuencia, así que los INSERT se envían en lotes JDBC al hacer flush
+        List<Inscripcion> guardadas = inscripcionRepository.saveAll(nuevas);
+        List<InscripcionDTO> creadas = new ArrayList<>(guardadas.size());
+        for (int i = 0; i < guardadas.size(); i++) {
+            InscripcionDTO creada = convertToDTO(guardadas.get(i));
+            resultadosExitosos.get(i).setInscripcion(creada);
+            creadas.add(creada);
+        }
+        invalidarListasTrasCommit(creadas, true);
+        return resultados;
+    }
+
+    // Aplica las reglas de crearInscripcion sobre los datos precargados del lote; devuelve el error o null si es válida
+    private String validarInscripcionDeLote(InscripcionDTO dto, Set<Long> estudiantesExistentes, Set<Long> materiasExistentes,
+                                            Map<Long, Set<Long>> activasPorEstudiante, Map<Long, Set<Long>> aprobadasPorEstudiante) {
+        if (!estudiantesExistentes.contains(dto.getEstudianteId())) {
+            return "Estudiante no encontrado";
+        }
+        if (!materiasExistentes.contains(dto.getMateriaId())) {
+            return "Materia no encontrada";
+        }
+        Set<Long> activas = activasPorEstudiante.getOrDefault(dto.getEstudianteId(), Collections.emptySet());
+        if (activas.contains(dto.getMateriaId())) {
+            return "El estudiante ya está inscrito en esta materia";
+        }
+        if (activas.size() >= MAX_MATERIAS_POR_ESTUDIANTE) {
+            return "El estudiante ha alcanzado el límite de materias permitidas";
+        }
+        if (!prerequisiteGraph.prerequisitosAprobados(dto.getMateriaId(),
+                aprobadasPorEstudiante.getOrDefault(dto.getEstudianteId(), Collections.emptySet()))) {
+            return "El estudiante no cumple con los prerequisitos para esta materia";
+        }
+        return null;
     }
 
     @Override
     @Transactional
-    @CachePut(value = "inscripcion", key = "#id")
-    @CacheEvict(value = {"inscripciones", "inscripcionesPorEstudiante", "inscripcionesPorMateria"}, allEntries = true)
     public InscripcionDTO actualizarInscripcion(Long id, InscripcionDTO inscripcionDTO) {
         return inscripcionRepository.findById(id)
                 .map(existingInscripcion -> {
+                    reservaCupoService.ajustarPorCambioDeEstado(existingInscripcion.getMateria().getId(),
+                            existingInscripcion.getEstado(), inscripcionDTO.getEstado());
                     existingInscripcion.setEstado(inscripcionDTO.getEstado());
                     existingInscripcion.setCalificacion(inscripcionDTO.getCalificacion());
                     existingInscripcion.setPeriodoAcademico(inscripcionDTO.getPeriodoAcademico());
                     Inscripcion updatedInscripcion = inscripcionRepository.save(existingInscripcion);
-                    return convertToDTO(updatedInscripcion);
+                    InscripcionDTO actualizada = convertToDTO(updatedInscripcion);
+                    invalidarListasTrasCommit(List.of(actualizada), true);
+                    return actualizada;
                 })
                 .orElse(null);
     }
 
     @Override
-    @CacheEvict(value = {"inscripcion", "inscripciones", "inscripcionesPorEstudiante", "inscripcionesPorMateria"}, allEntries = true)
+    @Transactional
     public void eliminarInscripcion(Long id) {
-        inscripcionRepository.deleteById(id);
+        inscripcionRepository.findById(id).ifPresent(inscripcion -> {
+            reservaCupoService.ajustarPorCambioDeEstado(inscripcion.getMateria().getId(), inscripcion.getEstado(), null);
+            inscripcionRepository.delete(inscripcion);
+            invalidarListasTrasCommit(List.of(convertToDTO(inscripcion)), false);
+        });
     }
 
     @Override
     @Transactional
-    @CachePut(value = "inscripcion", key = "#id")
-    @CacheEvict(value = {"inscripciones", "inscripcionesPorEstudiante", "inscripcionesPorMateria"}, allEntries = true)
     public InscripcionDTO actualizarEstadoInscripcion(Long id, String estado) {
         return inscripcionRepository.findById(id)
                 .map(inscripcion -> {
+                    reservaCupoService.ajustarPorCambioDeEstado(inscripcion.getMateria().getId(),
+                            inscripcion.getEstado(), estado);
                     inscripcion.setEstado(estado);
                     Inscripcion updatedInscripcion = inscripcionRepository.save(inscripcion);
-                    return convertToDTO(updatedInscripcion);
+                    InscripcionDTO actualizada = convertToDTO(updatedInscripcion);
+                    invalidarListasTrasCommit(List.of(actualizada), true);
+                    return actualizada;
                 })
                 .orElse(null);
     }
 
     @Override
     @Transactional
-    @CachePut(value = "inscripcion", key = "#id")
-    @CacheEvict(value = {"inscripciones", "inscripcionesPorEstudiante", "inscripcionesPorMateria"}, allEntries = true)
     public InscripcionDTO registrarCalificacion(Long id, Integer calificacion) {
+        validarCalificacion(calificacion);
         return inscripcionRepository.findById(id)
                 .map(inscripcion -> {
+                    String nuevoEstado = estadoPorCalificacion(calificacion);
+                    reservaCupoService.ajustarPorCambioDeEstado(inscripcion.getMateria().getId(),
+                            inscripcion.getEstado(), nuevoEstado);
                     inscripcion.setCalificacion(calificacion);
-                    inscripcion.setEstado(calificacion >= 60 ? "aprobado" : "reprobado");
+                    inscripcion.setEstado(nuevoEstado);
                     Inscripcion updatedInscripcion = inscripcionRepository.save(inscripcion);
-                    return convertToDTO(updatedInscripcion);
+                    InscripcionDTO actualizada = convertToDTO(updatedInscripcion);
+                    invalidarListasTrasCommit(List.of(actualizada), true);
+                    return actualizada;
                 })
                 .orElse(null);
     }
 
+    @Override
+    @Transactional
+    public List<InscripcionDTO> registrarCalificaciones(Long materiaId, Map<Long, Integer> calificaciones) {
+        if (calificaciones == null || calificaciones.isEmpty()) {
+            throw new IllegalArgumentException("Debe enviar al menos una calificación");
+        }
+        if (calificaciones.size() > MAX_INSCRIPCIONES_POR_LOTE) {
+            throw new IllegalArgumentException("No se pueden registrar más de " + MAX_INSCRIPCIONES_POR_LOTE + " calificaciones a la vez");
+        }
+        List<Long> sinCalificacion = calificaciones.entrySet().stream()
+                .filter(entrada -> entrada.getValue() == null)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!sinCalificacion.isEmpty()) {
+            throw new IllegalArgumentException("Falta la calificación de las inscripciones " + sinCalificacion);
+        }
+        List<Long> fueraDeRango = calificaciones.entrySet().stream()
+                .filter(entrada -> entrada.getValue() < CALIFICACION_MINIMA || entrada.getValue() > CALIFICACION_MAXIMA)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!fueraDeRango.isEmpty()) {
+            throw new IllegalArgumentException("Las calificaciones de las inscripciones " + fueraDeRango
+                    + " deben estar entre " + CALIFICACION_MINIMA + " y " + CALIFICACION_MAXIMA);
+        }
+        if (!materiaRepository.existsById(materiaId)) {
+            return null;
+        }
+
+        // Una sola consulta para todas las inscripciones; todas deben pertenecer a la materia
+        List<Inscripcion> inscripciones = inscripcionRepository.findParaCalificar(materiaId, calificaciones.keySet());
+        if (inscripciones.size() != calificaciones.size()) {
+            Set<Long> encontradas = inscripciones.stream().map(Inscripcion::getId).collect(Collectors.toSet());
+            List<Long> ajenas = calificaciones.keySet().stream()
+                    .filter(id -> !encontradas.contains(id))
+                    .sorted()
+                    .collect(Collectors.toList());
+            throw new IllegalArgumentException("Las inscripciones " + ajenas + " no existen o no pertenecen a la materia " + materiaId);
+        }
+        // En bloque solo se califican inscripciones activas: una retirada no se puede calificar y una ya
+        // calificada (aprobado/reprobado) se corrige de forma individual, no reescribiendo el acta completa
+        List<Long> noActivas = inscripciones.stream()
+                .filter(inscripcion -> !"activo".equals(inscripcion.getEstado()))
+                .map(Inscripcion::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!noActivas.isEmpty()) {
+            throw new IllegalArgumentException("Las inscripciones " + noActivas + " no están activas y no se pueden calificar en bloque");
+        }
+
+        for (Inscripcion inscripcion : inscripciones) {
+            Integer calificacion = calificaciones.get(inscripcion.getId());
+            inscripcion.setCalificacion(calificacion);
+            inscripcion.setEstado(estadoPorCalificacion(calificacion));
+        }
+        // Todas las inscripciones calificadas estaban activas y dejan de estarlo: un único UPDATE del contador de cupos
+        reservaCupoService.liberarCupos(materiaId, inscripciones.size());
+
+        // Los UPDATE (con la condición de @Version) salen en lotes JDBC al hacer flush; si otra transacción
+        // modificó alguna inscripción después de leerla, falla el lote completo y se revierte todo
+        inscripcionRepository.saveAllAndFlush(inscripciones);
+
+        List<InscripcionDTO> resultado = inscripciones.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        invalidarListasTrasCommit(resultado, true);
+        return resultado;
+    }
+
+    // Tras el commit invalida solo las listas del estudiante y de la materia de cada inscripción afectada (una vez
+    // por clave) y deja en el cache la versión nueva de cada inscripción, o la quita si se eliminó. Las páginas por
+    // cursor no se pueden invalidar por clave y se vacían una sola vez. Todas las escrituras pasan por aquí en lugar
+    // de usar @CachePut/@CacheEvict: las anotaciones actúan antes del commit, así que otra petición podía volver a
+    // cachear el estado anterior, o quedaba en el cache un valor que luego se revertía
+    private void invalidarListasTrasCommit(List<InscripcionDTO> inscripciones, boolean actualizarInscripciones) {
+        if (inscripciones.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    Cache porId = cacheManager.getCache("inscripcion");
+                    Cache porEstudiante = cacheManager.getCache("inscripcionesPorEstudiante");
+                    Cache porMateria = cacheManager.getCache("inscripcionesPorMateria");
+                    Set<Long> estudianteIds = new HashSet<>();
+                    Set<Long> materiaIds = new HashSet<>();
+                    for (InscripcionDTO inscripcion : inscripciones) {
+                        if (actualizarInscripciones) {
+                            porId.put(inscripcion.getId(), inscripcion);
+                        } else {
+                            porId.evict(inscripcion.getId());
+                        }
+                        if (estudianteIds.add(inscripcion.getEstudianteId())) {
+                            porEstudiante.evict(inscripcion.getEstudianteId());
+                        }
+                        if (materiaIds.add(inscripcion.getMateriaId())) {
+                            porMateria.evict(inscripcion.getMateriaId());
+                        }
+                    }
+                    cacheManager.getCache("inscripcionesPagina").clear();
+                } catch (RuntimeException e) {
+                    // Los cambios ya están guardados: si Redis falla, las entradas expiran por su tiempo de vida
+                    logger.warn("No se pudieron invalidar los caches de {} inscripciones: {}", inscripciones.size(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private static void validarCalificacion(Integer calificacion) {
+        if (calificacion == null || calificacion < CALIFICACION_MINIMA || calificacion > CALIFICACION_MAXIMA) {
+            throw new IllegalArgumentException("La calificación debe estar entre " + CALIFICACION_MINIMA + " y " + CALIFICACION_MAXIMA);
+        }
+    }
+
+    private static String estadoPorCalificacion(Integer calificacion) {
+        return calificacion >= CALIFICACION_MINIMA_APROBACION ? "aprobado" : "reprobado";
+    }
+
     @Override
     public boolean verificarDisponibilidadMateria(Long materiaId) {
-        long inscripcionesActivas = inscripcionRepository.findActiveByMateriaId(materiaId).size();
-        return inscripcionesActivas < MAX_ESTUDIANTES_POR_MATERIA;
+        long inscripcionesActivas = inscripcionRepository.countActiveByMateriaId(materiaId);
+        return inscripcionesActivas < IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA;
     }
 
     @Override
     public boolean verificarCupoEstudiante(Long estudianteId) {
-        long materiasActivas = inscripcionRepository.findActiveByEstudianteId(estudianteId).size();
+        long materiasActivas = inscripcionRepository.countActiveByEstudianteId(estudianteId);
         return materiasActivas < MAX_MATERIAS_POR_ESTUDIANTE;
     }
 
     @Override
     public boolean verificarPrerequisitos(Long estudianteId, Long materiaId) {
-        Materia materia = materiaRepository.findById(materiaId)
-                .orElseThrow(() -> new RuntimeException("Materia no encontrada"));
-        
-        if (materia.getPrerequisitos() == null || materia.getPrerequisitos().isEmpty()) {
+        // El grafo en memoria responde sin cargar la materia ni sus colecciones de prerequisitos
+        if (!prerequisiteGraph.tienePrerequisitos(materiaId)) {
             return true;
         }
         
-        List<Long> materiasAprobadas = inscripcionRepository.findByEstudianteId(estudianteId).stream()
-                .filter(i -> "aprobado".equals(i.getEstado()))
-                .map(i -> i.getMateria().getId())
-                .collect(Collectors.toList());
-        
-        return materiasAprobadas.containsAll(
-            materia.getPrerequisitos().stream()
-                .map(Materia::getId)
-                .collect(Collectors.toList())
-        );
+        List<Long> materiasAprobadas = inscripcionRepository.findMateriaIdsByEstudianteIdAndEstado(estudianteId, "aprobado");
+        return prerequisiteGraph.prerequisitosAprobados(materiaId, materiasAprobadas);
     }
 
     private InscripcionDTO convertToDTO(Inscripcion inscripcion) {
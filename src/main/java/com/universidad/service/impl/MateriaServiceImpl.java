@@ -1,16 +1,23 @@
 package com.universidad.service.impl;
 
+import com.universidad.cache.CacheIndexado;
+import com.universidad.cache.DimensionCache;
+import com.universidad.graph.PrerequisiteGraph;
 import com.universidad.model.Materia;
 import com.universidad.repository.MateriaRepository;
 import com.universidad.service.IMateriaService;
 import com.universidad.dto.MateriaDTO;
+import com.universidad.dto.PaginaDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,43 +26,81 @@ public class MateriaServiceImpl implements IMateriaService {
     @Autowired
     private MateriaRepository materiaRepository;
 
+    @Autowired
+    private PrerequisiteGraph prerequisiteGraph;
+
+    @Autowired
+    private CacheIndexado<MateriaDTO> cacheMateria; // Cache "materia": por ID y por código único
+
     // Método utilitario para mapear Materia a MateriaDTO
     private MateriaDTO mapToDTO(Materia materia) {
         if (materia == null) return null;
+        return mapToDTO(materia,
+                materia.getPrerequisitos() != null ?
+                    materia.getPrerequisitos().stream().map(Materia::getId).collect(Collectors.toList()) : null,
+                materia.getEsPrerequisitoDe() != null ?
+                    materia.getEsPrerequisitoDe().stream().map(Materia::getId).collect(Collectors.toList()) : null);
+    }
+
+    private MateriaDTO mapToDTO(Materia materia, List<Long> prerequisitos, List<Long> esPrerequisitoDe) {
         return MateriaDTO.builder()
                 .id(materia.getId())
                 .nombreMateria(materia.getNombreMateria())
                 .codigoUnico(materia.getCodigoUnico())
                 .creditos(materia.getCreditos())
-                .prerequisitos(materia.getPrerequisitos() != null ?
-                    materia.getPrerequisitos().stream().map(Materia::getId).collect(Collectors.toList()) : null)
-                .esPrerequisitoDe(materia.getEsPrerequisitoDe() != null ?
-                    materia.getEsPrerequisitoDe().stream().map(Materia::getId).collect(Collectors.toList()) : null)
+                .prerequisitos(prerequisitos)
+                .esPrerequisitoDe(esPrerequisitoDe)
                 .build();
     }
 
+    // Mapea un listado de materias tomando los prerequisitos de los pares (id_materia, id_prerequisito) ya leídos,
+    // en lugar de inicializar dos colecciones por materia (dos consultas extra por fila)
+    private List<MateriaDTO> mapToDTOs(List<Materia> materias, List<Object[]> pares) {
+        Map<Long, List<Long>> prerequisitos = new HashMap<>();
+        Map<Long, List<Long>> esPrerequisitoDe = new HashMap<>();
+        for (Object[] par : pares) {
+            Long materiaId = ((Number) par[0]).longValue();
+            Long prerequisitoId = ((Number) par[1]).longValue();
+            prerequisitos.computeIfAbsent(materiaId, k -> new ArrayList<>()).add(prerequisitoId);
+            esPrerequisitoDe.computeIfAbsent(prerequisitoId, k -> new ArrayList<>()).add(materiaId);
+        }
+        return materias.stream()
+                .map(materia -> mapToDTO(materia,
+                        prerequisitos.getOrDefault(materia.getId(), new ArrayList<>()),
+                        esPrerequisitoDe.getOrDefault(materia.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Cacheable(value = "materias")
     public List<MateriaDTO> obtenerTodasLasMaterias() {
-        return materiaRepository.findAll().stream().map(this::mapToDTO).collect(Collectors.toList());
+        // Dos consultas en total, sin importar cuántas materias haya
+        return mapToDTOs(materiaRepository.findAll(), materiaRepository.findAllPrerequisitoPairs());
+    }
+
+    @Override
+    @Cacheable(value = "materiasPagina", key = "#after + ':' + #limite")
+    public PaginaDTO<MateriaDTO> obtenerPaginaMaterias(Long after, int limite) {
+        PaginaDTO.validarLimite(limite);
+        List<Materia> filas = materiaRepository.findPagina(after != null ? after : 0L, PageRequest.ofSize(limite + 1));
+        List<Object[]> pares = filas.isEmpty() ? List.of()
+                : materiaRepository.findPrerequisitoPairsByMateriaIdIn(filas.stream().map(Materia::getId).collect(Collectors.toList()));
+        return PaginaDTO.de(mapToDTOs(filas, pares), limite, MateriaDTO::getId);
     }
 
     @Override
-    @Cacheable(value = "materia", key = "#id")
     public MateriaDTO obtenerMateriaPorId(Long id) {
-        return materiaRepository.findById(id).map(this::mapToDTO).orElse(null);
+        return cacheMateria.obtenerPorId(id, () -> materiaRepository.findById(id).map(this::mapToDTO).orElse(null));
     }
 
     @Override
-    @Cacheable(value = "materia", key = "#codigoUnico")
     public MateriaDTO obtenerMateriaPorCodigoUnico(String codigoUnico) {
-        Materia materia = materiaRepository.findByCodigoUnico(codigoUnico);
-        return mapToDTO(materia);
+        return cacheMateria.obtenerPor(DimensionCache.CODIGO_MATERIA, codigoUnico,
+                () -> mapToDTO(materiaRepository.findByCodigoUnico(codigoUnico)));
     }
 
     @Override
-    @CachePut(value = "materia", key = "#result.id")
-    @CacheEvict(value = "materias", allEntries = true)
+    @CacheEvict(value = {"materias", "materiasPagina"}, allEntries = true)
     public MateriaDTO crearMateria(MateriaDTO materiaDTO) {
         Materia materia = new Materia();
         materia.setNombreMateria(materiaDTO.getNombreMateria());
@@ -63,25 +108,47 @@ public class MateriaServiceImpl implements IMateriaService {
         materia.setCreditos(materiaDTO.getCreditos());
         // Map other fields as necessary
         Materia savedMateria = materiaRepository.save(materia);
-        return mapToDTO(savedMateria);
+        prerequisiteGraph.agregarMateria(savedMateria.getId()); // Sin aristas: no hace falta recargar el grafo
+        MateriaDTO creada = mapToDTO(savedMateria);
+        cacheMateria.guardar(creada);
+        return creada;
     }
 
     @Override
-    @CachePut(value = "materia", key = "#id")
-    @CacheEvict(value = "materias", allEntries = true)
+    @CacheEvict(value = {"materias", "materiasPagina"}, allEntries = true)
     public MateriaDTO actualizarMateria(Long id, MateriaDTO materiaDTO) {
         Materia materia = materiaRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Materia not found"));
         materia.setNombreMateria(materiaDTO.getNombreMateria());
         materia.setCodigoUnico(materiaDTO.getCodigoUnico());
         materia.setCreditos(materiaDTO.getCreditos());
         // Map other fields as necessary
+        // Solo cambian nombre, código y créditos: las aristas del grafo de prerequisitos no se tocan
         Materia updatedMateria = materiaRepository.save(materia);
-        return mapToDTO(updatedMateria);
+        MateriaDTO actualizada = mapToDTO(updatedMateria);
+        cacheMateria.guardar(actualizada); // Refresca la entrada por ID y por código (y descarta el código anterior)
+        return actualizada;
     }
 
     @Override
-    @CacheEvict(value = {"materia", "materias"}, allEntries = true)
+    @CacheEvict(value = {"materias", "materiasPagina"}, allEntries = true)
     public void eliminarMateria(Long id) {
         materiaRepository.deleteById(id);
+        prerequisiteGraph.eliminarMateria(id); // Recarga el grafo solo si la materia tenía aristas
+        cacheMateria.invalidar(id);
+    }
+
+    @Override
+    public boolean formariaCirculo(Long materiaId, Long prerequisitoId) {
+        return prerequisiteGraph.formariaCiclo(materiaId, prerequisitoId);
+    }
+
+    @Override
+    public List<Long> obtenerCierrePrerequisitos(Long materiaId) {
+        return prerequisiteGraph.cierrePrerequisitos(materiaId);
+    }
+
+    @Override
+    public List<Long> obtenerMateriasDesbloqueadas(Long materiaId) {
+        return prerequisiteGraph.desbloquea(materiaId);
     }
 }
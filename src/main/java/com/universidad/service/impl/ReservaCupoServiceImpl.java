@@ -0,0 +1,82 @@
+package com.universidad.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.universidad.repository.MateriaRepository;
+import com.universidad.service.IReservaCupoService;
+
+/**
+ * Lleva la cuenta de cupos ocupados por materia en la columna {@code materia.cupos_ocupados}.
+ * Cada reserva es un UPDATE condicional ({@code cupos_ocupados < maximo}), de modo que el límite
+ * de estudiantes por materia se respeta sin bloquear la fila durante toda la inscripción.
+ * El contador se reconcilia con las inscripciones activas de forma periódica, en horario de baja carga.
+ */
+@Service
+public class ReservaCupoServiceImpl implements IReservaCupoService {
+
+    private static final String ESTADO_ACTIVO = "activo";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaCupoServiceImpl.class);
+
+    @Autowired
+    private MateriaRepository materiaRepository;
+
+    @Override
+    @Transactional
+    public boolean reservarCupo(Long materiaId) {
+        return materiaRepository.reservarCupo(materiaId, MAX_ESTUDIANTES_POR_MATERIA) == 1;
+    }
+
+    @Override
+    @Transactional
+    public void liberarCupo(Long materiaId) {
+        materiaRepository.liberarCupo(materiaId);
+    }
+
+    @Override
+    @Transactional
+    public void liberarCupos(Long materiaId, int cantidad) {
+        if (cantidad > 0) {
+            materiaRepository.liberarCupos(materiaId, cantidad);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void ajustarPorCambioDeEstado(Long materiaId, String estadoAnterior, String estadoNuevo) {
+        boolean eraActiva = ESTADO_ACTIVO.equals(estadoAnterior);
+        boolean esActiva = ESTADO_ACTIVO.equals(estadoNuevo);
+        if (eraActiva && !esActiva) {
+            liberarCupo(materiaId);
+        } else if (!eraActiva && esActiva && !reservarCupo(materiaId)) {
+            throw new RuntimeException("No hay cupos disponibles en esta materia");
+        }
+    }
+
+    @Override
+    @Transactional
+    public int reconciliarCupos() {
+        if (!materiaRepository.bloquearReconciliacion()) {
+            logger.info("La reconciliación de cupos ya se está ejecutando en otro nodo");
+            return 0;
+        }
+        // Con las materias bloqueadas ninguna reserva queda a medias entre el conteo y la escritura del contador
+        materiaRepository.bloquearParaReconciliar();
+        int materias = materiaRepository.reconciliarCupos();
+        logger.info("Cupos ocupados reconciliados para {} materias", materias);
+        return materias;
+    }
+
+    // Reconciliación automática en horario de baja carga. No se ejecuta al arrancar: en un despliegue escalonado
+    // los nodos arrancan con inscripciones en curso, y la reconciliación bloquea las reservas mientras dura
+    @Transactional
+    @Scheduled(cron = "${app.inscripciones.reconciliacion-cupos.cron:0 0 3 * * *}")
+    public void reconciliarCuposProgramado() {
+        reconciliarCupos();
+    }
+}
@@ -48,10 +48,15 @@ public class EstudianteValidator {
 
     public void validacionCompletaEstudiante(EstudianteDTO estudiante) {
         validaEmailUnico(estudiante.getEmail());
+        validacionSinConsultas(estudiante);
+        // Otras validaciones...
+    }
+
+    // Validaciones que no consultan la base de datos (la importación masiva verifica la unicidad por bloques)
+    public void validacionSinConsultas(EstudianteDTO estudiante) {
         validaDominioEmail(estudiante.getEmail());
         validaNombreEstudiante(estudiante.getNombre());
         validaApellidoEstudiante(estudiante.getApellido());
-        // Otras validaciones...
     }
 
     public class BusinessException extends RuntimeException {
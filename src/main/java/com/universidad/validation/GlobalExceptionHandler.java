@@ -1,5 +1,6 @@
 package com.universidad.validation;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,6 +11,10 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
@@ -21,9 +26,22 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Cuenta el error en la métrica api.errores, con la categoría del manejador que lo atendió
+    private void contarError(String categoria) {
+        Counter.builder("api.errores")
+                .description("Errores atendidos por GlobalExceptionHandler, por categoría")
+                .tag("categoria", categoria)
+                .register(meterRegistry)
+                .increment();
+    }
+
     // 1. Maneja errores de validación de Bean Validation (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        contarError("validacion");
         // Extrae todos los errores de validación y crea un mapa campo -> mensaje
         Map<String, String> errores = ex.getBindingResult() // Obtiene el resultado de la validación
                 .getAllErrors() // Obtiene todos los errores (puede incluir errores de objeto)
@@ -52,6 +70,7 @@ public class GlobalExceptionHandler {
     // 2. Maneja errores de conversión de tipo (por ejemplo, String a Integer)
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ApiError> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        contarError("tipo_de_dato");
         String nombre = ex.getName();
         String tipo = ex.getRequiredType() != null ? ex.getRequiredType().getSimpleName() : "desconocido";
         Object valor = ex.getValue();
@@ -71,6 +90,7 @@ public class GlobalExceptionHandler {
     // 3. Maneja errores de validación a nivel de parámetros (@RequestParam, @PathVariable)
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiError> handleConstraintViolation(ConstraintViolationException ex) {
+        contarError("validacion_parametros");
         Map<String, String> errores = ex.getConstraintViolations()
                 .stream()
                 .collect(Collectors.toMap(
@@ -93,6 +113,7 @@ public class GlobalExceptionHandler {
     // 4. Maneja errores de entidad no encontrada
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ApiError> handleEntityNotFound(EntityNotFoundException ex) {
+        contarError("recurso_no_encontrado");
         ApiError apiError = new ApiError(
             HttpStatus.NOT_FOUND.value(),
             "Recurso no encontrado",
@@ -106,6 +127,7 @@ public class GlobalExceptionHandler {
     // 5. Puedes crear excepciones personalizadas para tu negocio
     @ExceptionHandler(RecursoNoDisponibleException.class)
     public ResponseEntity<ApiError> handleRecursoNoDisponible(RecursoNoDisponibleException ex) {
+        contarError("recurso_no_disponible");
         ApiError apiError = new ApiError(
             HttpStatus.CONFLICT.value(),
             "Recurso no disponible",
@@ -119,6 +141,7 @@ public class GlobalExceptionHandler {
     // 6. Maneja rutas no encontradas
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ApiError> handleNoHandlerFound(NoHandlerFoundException ex) {
+        contarError("endpoint_no_encontrado");
         // Extraer información de la excepción
         String requestURL = ex.getRequestURL();
         String httpMethod = ex.getHttpMethod();
@@ -141,6 +164,7 @@ public class GlobalExceptionHandler {
     // 7. Manejador global para cualquier otra excepción no controlada
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleGenericException(Exception ex, WebRequest request) {
+        contarError("interno");
         // En producción, podrías querer loggear la excepción pero no mostrarla al cliente
         ApiError apiError = new ApiError(
             HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -158,6 +182,7 @@ public class GlobalExceptionHandler {
     // 8. Maneja errores de deserialización o JSON mal formado
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
+        contarError("formato_invalido");
         ex.printStackTrace(); // Log completo para depuración
         String mensajeUsuario = "Error en el formato de los datos enviados.";
         String detalles = ex.getMostSpecificCause().getMessage();
@@ -181,6 +206,7 @@ public class GlobalExceptionHandler {
     // 9. Maneja violaciones de integridad de datos (ej: clave duplicada)
     @org.springframework.web.bind.annotation.ExceptionHandler(org.springframework.dao.DataIntegrityViolationException.class)
     public ResponseEntity<ApiError> handleDataIntegrityViolation(org.springframework.dao.DataIntegrityViolationException ex) {
+        contarError("integridad_datos");
         String mensaje = "Violación de restricción de datos. Puede que algún valor ya exista o no cumpla una restricción única.";
         String detalles = ex.getMostSpecificCause() != null ? ex.getMostSpecificCause().getMessage() : ex.getMessage();
         // Personaliza el mensaje si es por email duplicado
@@ -199,6 +225,7 @@ public class GlobalExceptionHandler {
     // 10. Maneja IllegalArgumentException para validaciones manuales
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleIllegalArgumentException(IllegalArgumentException ex) {
+        contarError("argumento_invalido");
         ApiError apiError = new ApiError(
             HttpStatus.BAD_REQUEST.value(),
             "Error de validación en los datos de entrada",
@@ -208,6 +235,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiError);
     }
 
+    // 11. Maneja conflictos de concurrencia optimista (@Version): otro usuario modificó el registro
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiError> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        contarError("concurrencia");
+        ApiError apiError = new ApiError(
+            HttpStatus.CONFLICT.value(),
+            "El registro fue modificado por otra operación. Vuelva a consultarlo e intente de nuevo.",
+            ex.getMessage(),
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(apiError);
+    }
+
     public class RecursoNoDisponibleException extends RuntimeException {
         public RecursoNoDisponibleException(String mensaje) {
             super(mensaje);
@@ -0,0 +1,151 @@
+-- Esquema inicial de la aplicación.
+-- Hasta esta versión las tablas las creaba Hibernate (ddl-auto=update), y con spring.flyway.baseline-version=0
+-- esta migración se ejecuta también sobre un esquema ya poblado. Por eso las tablas y secuencias usan
+-- IF NOT EXISTS: en una base de datos existente CREATE TABLE no hace nada, ni siquiera agregar columnas.
+-- Las columnas que no existían en el esquema que generaba Hibernate se agregan aparte, con ALTER TABLE
+-- (ver el final del archivo); toda columna nueva de una tabla existente debe seguir ese camino.
+-- Las tablas de Spring Session las crea spring.session.jdbc.initialize-schema.
+
+-- Secuencias de las entidades con IDs pooled (INCREMENT BY debe coincidir con el allocationSize)
+CREATE SEQUENCE IF NOT EXISTS persona_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS materia_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS inscripcion_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS evaluacion_docente_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS persona (
+    id_persona       BIGINT       NOT NULL,
+    version          BIGINT,
+    nombre           VARCHAR(50)  NOT NULL,
+    apellido         VARCHAR(50)  NOT NULL,
+    email            VARCHAR(255) NOT NULL,
+    fecha_nacimiento DATE         NOT NULL,
+    CONSTRAINT pk_persona PRIMARY KEY (id_persona),
+    CONSTRAINT uk_persona_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS estudiante (
+    id_persona           BIGINT       NOT NULL,
+    numero_inscripcion   VARCHAR(255) NOT NULL,
+    estado               VARCHAR(255),
+    usuario_alta         VARCHAR(255),
+    fecha_alta           DATE         NOT NULL,
+    usuario_modificacion VARCHAR(255),
+    fecha_modificacion   DATE,
+    usuario_baja         VARCHAR(255),
+    fecha_baja           DATE,
+    motivo_baja          VARCHAR(255),
+    CONSTRAINT pk_estudiante PRIMARY KEY (id_persona),
+    CONSTRAINT uk_estudiante_numero_inscripcion UNIQUE (numero_inscripcion),
+    CONSTRAINT fk_estudiante_persona FOREIGN KEY (id_persona) REFERENCES persona (id_persona)
+);
+
+CREATE TABLE IF NOT EXISTS docente (
+    id_persona   BIGINT       NOT NULL,
+    nro_empleado VARCHAR(255) NOT NULL,
+    departamento VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_docente PRIMARY KEY (id_persona),
+    CONSTRAINT uk_docente_nro_empleado UNIQUE (nro_empleado),
+    CONSTRAINT fk_docente_persona FOREIGN KEY (id_persona) REFERENCES persona (id_persona)
+);
+
+CREATE TABLE IF NOT EXISTS materia (
+    id_materia     BIGINT       NOT NULL,
+    nombre_materia VARCHAR(100) NOT NULL,
+    codigo_unico   VARCHAR(255) NOT NULL,
+    creditos       INTEGER      NOT NULL,
+    cupos_ocupados INTEGER      NOT NULL DEFAULT 0,
+    version        BIGINT,
+    CONSTRAINT pk_materia PRIMARY KEY (id_materia),
+    CONSTRAINT uk_materia_codigo_unico UNIQUE (codigo_unico)
+);
+
+CREATE TABLE IF NOT EXISTS docente_materia (
+    docente_id BIGINT NOT NULL,
+    materia_id BIGINT NOT NULL,
+    CONSTRAINT fk_docente_materia_docente FOREIGN KEY (docente_id) REFERENCES docente (id_persona),
+    CONSTRAINT fk_docente_materia_materia FOREIGN KEY (materia_id) REFERENCES materia (id_materia)
+);
+
+CREATE TABLE IF NOT EXISTS materia_prerequisito (
+    id_materia      BIGINT NOT NULL,
+    id_prerequisito BIGINT NOT NULL,
+    CONSTRAINT fk_materia_prerequisito_materia FOREIGN KEY (id_materia) REFERENCES materia (id_materia),
+    CONSTRAINT fk_materia_prerequisito_prerequisito FOREIGN KEY (id_prerequisito) REFERENCES materia (id_materia)
+);
+
+CREATE TABLE IF NOT EXISTS estudiante_materia (
+    id_estudiante BIGINT NOT NULL,
+    id_materia    BIGINT NOT NULL,
+    CONSTRAINT fk_estudiante_materia_estudiante FOREIGN KEY (id_estudiante) REFERENCES estudiante (id_persona),
+    CONSTRAINT fk_estudiante_materia_materia FOREIGN KEY (id_materia) REFERENCES materia (id_materia)
+);
+
+CREATE TABLE IF NOT EXISTS inscripcion (
+    id                BIGINT       NOT NULL,
+    estudiante_id     BIGINT       NOT NULL,
+    materia_id        BIGINT       NOT NULL,
+    fecha_inscripcion DATE         NOT NULL,
+    estado            VARCHAR(255) NOT NULL,
+    calificacion      INTEGER,
+    periodo_academico VARCHAR(255) NOT NULL,
+    usuario_registro  VARCHAR(255) NOT NULL,
+    version           BIGINT,
+    CONSTRAINT pk_inscripcion PRIMARY KEY (id),
+    CONSTRAINT fk_inscripcion_estudiante FOREIGN KEY (estudiante_id) REFERENCES estudiante (id_persona),
+    CONSTRAINT fk_inscripcion_materia FOREIGN KEY (materia_id) REFERENCES materia (id_materia)
+);
+
+CREATE TABLE IF NOT EXISTS evaluacion_docente (
+    id         BIGINT NOT NULL,
+    docente_id BIGINT NOT NULL,
+    puntuacion INTEGER,
+    comentario VARCHAR(255),
+    fecha      DATE,
+    CONSTRAINT pk_evaluacion_docente PRIMARY KEY (id),
+    CONSTRAINT fk_evaluacion_docente_docente FOREIGN KEY (docente_id) REFERENCES docente (id_persona)
+);
+
+-- Roles: pocas filas fijas, conservan el ID autoincremental
+CREATE TABLE IF NOT EXISTS roles (
+    id     BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nombre VARCHAR(20),
+    CONSTRAINT pk_roles PRIMARY KEY (id),
+    CONSTRAINT ck_roles_nombre CHECK (nombre IN ('ROL_ESTUDIANTE', 'ROL_DOCENTE', 'ROL_ADMIN'))
+);
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id       BIGINT       NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    nombre   VARCHAR(255),
+    apellido VARCHAR(255),
+    activo   BOOLEAN      NOT NULL,
+    CONSTRAINT pk_usuarios PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_username UNIQUE (username),
+    CONSTRAINT uk_usuarios_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS usuario_roles (
+    usuario_id BIGINT NOT NULL,
+    rol_id     BIGINT NOT NULL,
+    CONSTRAINT pk_usuario_roles PRIMARY KEY (usuario_id, rol_id),
+    CONSTRAINT fk_usuario_roles_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id),
+    CONSTRAINT fk_usuario_roles_rol FOREIGN KEY (rol_id) REFERENCES roles (id)
+);
+
+-- Columnas agregadas después del esquema que generaba Hibernate: en las bases existentes la tabla ya estaba
+-- creada y el CREATE TABLE de arriba no las agrega
+ALTER TABLE materia ADD COLUMN IF NOT EXISTS cupos_ocupados INTEGER NOT NULL DEFAULT 0;
+-- El contador arranca en 0 en las filas existentes: se calcula desde las inscripciones activas
+-- (misma sentencia que la reconciliación periódica; en una base nueva no hay filas)
+UPDATE materia m SET cupos_ocupados = (SELECT COUNT(*) FROM inscripcion i WHERE i.materia_id = m.id_materia AND i.estado = 'activo');
+
+-- Adelanta cada secuencia más allá del mayor ID existente: las tablas que venían de IDENTITY ya tienen
+-- filas, y los IDs que reserve la secuencia (en bloques de 50) no deben chocar con ellas. Nunca la retrocede.
+SELECT setval('persona_seq', GREATEST((SELECT last_value FROM persona_seq), (SELECT COALESCE(MAX(id_persona), 0) FROM persona) + 50));
+SELECT setval('materia_seq', GREATEST((SELECT last_value FROM materia_seq), (SELECT COALESCE(MAX(id_materia), 0) FROM materia) + 50));
+SELECT setval('inscripcion_seq', GREATEST((SELECT last_value FROM inscripcion_seq), (SELECT COALESCE(MAX(id), 0) FROM inscripcion) + 50));
+SELECT setval('evaluacion_docente_seq', GREATEST((SELECT last_value FROM evaluacion_docente_seq), (SELECT COALESCE(MAX(id), 0) FROM evaluacion_docente) + 50));
+SELECT setval('usuarios_seq', GREATEST((SELECT last_value FROM usuarios_seq), (SELECT COALESCE(MAX(id), 0) FROM usuarios) + 50));
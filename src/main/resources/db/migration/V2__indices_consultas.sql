@@ -0,0 +1,35 @@
+-- Índices para las consultas frecuentes de los repositorios.
+-- Se crean con CONCURRENTLY para no bloquear las escrituras sobre tablas ya pobladas; por eso esta
+-- migración va separada del esquema (Flyway la ejecuta fuera de una transacción).
+-- CREATE INDEX CONCURRENTLY espera a que terminen todas las transacciones abiertas, incluida la que usaría
+-- Flyway para su bloqueo consultivo: requiere spring.flyway.postgresql.transactional-lock=false, si no la
+-- migración queda esperándose a sí misma al arrancar.
+
+-- inscripcion: búsquedas por estudiante y por materia, siempre acompañadas del estado
+-- (findByEstudianteId/findByMateriaId usan la primera columna; exists, findMateriaIdsByEstudianteIdAndEstado
+-- y los lotes por estudiante usan ambas)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inscripcion_estudiante_estado ON inscripcion (estudiante_id, estado);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inscripcion_materia_estado ON inscripcion (materia_id, estado);
+-- Inscripciones activas por materia (conteo de cupos y su reconciliación): con el tiempo la mayoría de las
+-- filas pasan a aprobado/reprobado/retirado, así que el índice parcial es mucho más chico que el compuesto
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inscripcion_materia_activa ON inscripcion (materia_id) WHERE estado = 'activo';
+-- Paginación por cursor filtrada por estado o por período (WHERE ... AND id > :after ORDER BY id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inscripcion_estado_id ON inscripcion (estado, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_inscripcion_periodo_id ON inscripcion (periodo_academico, id);
+
+-- estudiante: listados por estado
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_estudiante_estado ON estudiante (estado);
+
+-- docente: paginación por cursor filtrada por departamento
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_docente_departamento_id ON docente (departamento, id_persona);
+
+-- evaluacion_docente: evaluaciones de un docente
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_evaluacion_docente_docente ON evaluacion_docente (docente_id);
+
+-- Tablas intermedias: se recorren en ambos sentidos (materias de un docente / docentes de una materia, etc.)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_docente_materia_docente ON docente_materia (docente_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_docente_materia_materia ON docente_materia (materia_id, docente_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_materia_prerequisito_materia ON materia_prerequisito (id_materia);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_materia_prerequisito_prerequisito ON materia_prerequisito (id_prerequisito);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_estudiante_materia_estudiante ON estudiante_materia (id_estudiante);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_estudiante_materia_materia ON estudiante_materia (id_materia);
@@ -0,0 +1,21 @@
+-- Prepara el índice único de inscripciones activas (V4): una inscripción activa por estudiante y materia.
+-- Las verificaciones previas a ese índice eran consultar-y-luego-insertar, así que dos inscripciones simultáneas
+-- del mismo estudiante podían quedar activas en la misma materia. Se conserva la más antigua de cada par
+-- (estudiante, materia) y las demás pasan a 'retirado'.
+
+-- Bloquea las materias (en orden de ID, como la reconciliación periódica) hasta el fin de la migración: las
+-- inscripciones de otros nodos que sigan en marcha terminan antes y las nuevas esperan, así el recuento del
+-- final ve todas las inscripciones confirmadas
+SELECT id_materia FROM materia ORDER BY id_materia FOR UPDATE;
+
+UPDATE inscripcion i
+SET estado = 'retirado', version = COALESCE(version, 0) + 1
+WHERE i.estado = 'activo'
+  AND EXISTS (SELECT 1 FROM inscripcion o
+              WHERE o.estudiante_id = i.estudiante_id
+                AND o.materia_id = i.materia_id
+                AND o.estado = 'activo'
+                AND o.id < i.id);
+
+-- Las inscripciones retiradas liberan su cupo (misma sentencia que la reconciliación periódica)
+UPDATE materia m SET cupos_ocupados = (SELECT COUNT(*) FROM inscripcion i WHERE i.materia_id = m.id_materia AND i.estado = 'activo');
@@ -0,0 +1,7 @@
+-- Un estudiante no puede tener dos inscripciones activas en la misma materia. La verificación del servicio
+-- (con la fila del estudiante bloqueada) da el mensaje al usuario; el índice lo garantiza ante cualquier otro camino.
+-- Parcial: las inscripciones aprobadas, reprobadas o retiradas pueden repetirse (recursar la materia).
+-- Sin transacción, como V2 (ver ahí la nota sobre el bloqueo de Flyway). Si una ejecución anterior falló a mitad
+-- de la creación, el índice quedó inválido: se descarta antes de volver a crearlo.
+DROP INDEX CONCURRENTLY IF EXISTS uk_inscripcion_estudiante_materia_activa;
+CREATE UNIQUE INDEX CONCURRENTLY uk_inscripcion_estudiante_materia_activa ON inscripcion (estudiante_id, materia_id) WHERE estado = 'activo';
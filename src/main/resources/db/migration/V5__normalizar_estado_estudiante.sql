@@ -0,0 +1,4 @@
+-- Normaliza los estados de estudiante guardados antes de que el servicio los normalizara al escribir
+-- (minúsculas y sin espacios), para que los filtros exactos por estado y el índice los encuentren.
+-- Se ejecuta una sola vez; hasta ahora lo hacía cada nodo al arrancar.
+UPDATE estudiante SET estado = LOWER(TRIM(estado)) WHERE estado <> LOWER(TRIM(estado));
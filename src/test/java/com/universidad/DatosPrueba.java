@@ -0,0 +1,96 @@
+package com.universidad;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.universidad.model.Docente;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Materia;
+import com.universidad.repository.DocenteRepository;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.repository.MateriaRepository;
+
+/**
+ * Crea datos de prueba con claves naturales únicas (correo, número de inscripción, código de materia),
+ * para que las pruebas no choquen entre sí sobre la base compartida. Es un bean del contexto de las
+ * pruebas de integración: lo registra PruebaIntegracion y lo reciben sus subclases en el campo datos.
+ */
+public class DatosPrueba {
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private MateriaRepository materiaRepository;
+
+    @Autowired
+    private DocenteRepository docenteRepository;
+
+    public static String unico() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+
+    public Estudiante estudiante() {
+        return estudianteRepository.save(nuevoEstudiante());
+    }
+
+    public List<Estudiante> estudiantes(int cantidad) {
+        List<Estudiante> estudiantes = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            estudiantes.add(nuevoEstudiante());
+        }
+        return estudianteRepository.saveAll(estudiantes);
+    }
+
+    public static Estudiante nuevoEstudiante() {
+        String sufijo = unico();
+        return Estudiante.builder()
+                .nombre("Estudiante")
+                .apellido("Prueba")
+                .email("est-" + sufijo + "@prueba.edu")
+                .fechaNacimiento(LocalDate.of(2000, 1, 1))
+                .numeroInscripcion("INS-" + sufijo)
+                .estado("activo")
+                .usuarioAlta("pruebas")
+                .fechaAlta(LocalDate.now())
+                .build();
+    }
+
+    public Materia materia() {
+        return materiaRepository.save(nuevaMateria());
+    }
+
+    public List<Materia> materias(int cantidad) {
+        List<Materia> materias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            materias.add(nuevaMateria());
+        }
+        return materiaRepository.saveAll(materias);
+    }
+
+    private static Materia nuevaMateria() {
+        String sufijo = unico();
+        return Materia.builder()
+                .nombreMateria("Materia " + sufijo)
+                .codigoUnico("MAT-" + sufijo)
+                .creditos(4)
+                .build();
+    }
+
+    public Docente docente(List<Materia> materias) {
+        String sufijo = unico();
+        return docenteRepository.save(Docente.builder()
+                .nombre("Docente")
+                .apellido("Prueba")
+                .email("doc-" + sufijo + "@prueba.edu")
+                .fechaNacimiento(LocalDate.of(1980, 1, 1))
+                .nroEmpleado("EMP-" + sufijo)
+                .departamento("Pruebas")
+                .materias(new ArrayList<>(materias))
+                .build());
+    }
+}
@@ -0,0 +1,31 @@
+package com.universidad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanza desde JUnit los benchmarks JMH de una clase (forks, iteraciones y unidades según sus anotaciones).
+ * JMH imprime la tabla de resultados en la salida; las pruebas que lo usan llevan @Tag("rendimiento")
+ * y se ejecutan con el perfil de rendimiento: mvn test -Prendimiento -Dtest=NombreDeLaClase
+ */
+public final class EjecutorBenchmarks {
+
+    private EjecutorBenchmarks() {
+    }
+
+    public static Collection<RunResult> ejecutar(Class<?> benchmarks) throws RunnerException {
+        Collection<RunResult> resultados = new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmarks.getName()) + "\\.")
+                .shouldFailOnError(true)
+                .build()).run();
+        assertThat(resultados).as("benchmarks ejecutados de %s", benchmarks.getSimpleName()).isNotEmpty();
+        return resultados;
+    }
+}
@@ -0,0 +1,33 @@
+package com.universidad;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base de las pruebas de integración: levanta la aplicación completa contra PostgreSQL y Redis reales.
+ * Los contenedores se inician una sola vez y los comparten todas las clases de prueba (y todos los contextos
+ * de Spring); el esquema lo crean las migraciones de Flyway al arrancar. Como la base es compartida, cada prueba crea
+ * sus propios datos con claves únicas (ver DatosPrueba) en lugar de suponer tablas vacías.
+ */
+@SpringBootTest
+@Import(DatosPrueba.class)
+public abstract class PruebaIntegracion {
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @ServiceConnection(name = "redis")
+    static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    static {
+        POSTGRES.start();
+        REDIS.start();
+    }
+
+    @Autowired
+    protected DatosPrueba datos;
+}
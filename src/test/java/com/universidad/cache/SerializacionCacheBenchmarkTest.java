@@ -0,0 +1,115 @@
+package com.universidad.cache;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.universidad.EjecutorBenchmarks;
+import com.universidad.dto.InscripcionDTO;
+
+/**
+ * Benchmark JMH de los formatos de los valores en Redis sobre una lista de 10.000 InscripcionDTO (el tamaño
+ * de un listado cacheado grande) y sobre un DTO suelto: tiempo de serializar y deserializar con JDK,
+ * JSON de texto (GenericJackson2JsonRedisSerializer, con el mismo tipado) y los formatos Smile y Smile+LZ4
+ * de SerializadorValoresCache. Antes de medir informa el tamaño del valor en cada formato.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=SerializacionCacheBenchmarkTest
+ */
+@Tag("rendimiento")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializacionCacheBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializacionCacheBenchmarkTest.class);
+
+    private static final int DTOS = 10_000;
+    private static final String[] FORMATOS = {"JDK", "JSON", "SMILE", "SMILE_LZ4"};
+
+    @Param({"JDK", "JSON", "SMILE", "SMILE_LZ4"})
+    public String formato;
+
+    private RedisSerializer<Object> serializador;
+    private ArrayList<InscripcionDTO> lista;
+    private InscripcionDTO uno;
+    private byte[] listaSerializada;
+    private byte[] unoSerializado;
+
+    @Setup
+    public void preparar() {
+        serializador = serializador(formato);
+        lista = SerializadorValoresCacheTest.listaDeInscripciones(DTOS);
+        uno = lista.get(0);
+        listaSerializada = serializador.serialize(lista);
+        unoSerializado = serializador.serialize(uno);
+    }
+
+    @Test
+    void ejecutar() throws Exception {
+        ArrayList<InscripcionDTO> valores = SerializadorValoresCacheTest.listaDeInscripciones(DTOS);
+        logger.info("Tamaño del valor en Redis ({} InscripcionDTO / 1 InscripcionDTO)", DTOS);
+        for (String nombre : FORMATOS) {
+            RedisSerializer<Object> porFormato = serializador(nombre);
+            logger.info(String.format("  %-10s %,10d bytes / %,5d bytes", nombre,
+                    porFormato.serialize(valores).length, porFormato.serialize(valores.get(0)).length));
+        }
+        EjecutorBenchmarks.ejecutar(SerializacionCacheBenchmarkTest.class);
+    }
+
+    @Benchmark
+    public byte[] serializarLista() {
+        return serializador.serialize(lista);
+    }
+
+    @Benchmark
+    public Object deserializarLista() {
+        return serializador.deserialize(listaSerializada);
+    }
+
+    @Benchmark
+    public byte[] serializarUno() {
+        return serializador.serialize(uno);
+    }
+
+    @Benchmark
+    public Object deserializarUno() {
+        return serializador.deserialize(unoSerializado);
+    }
+
+    private static RedisSerializer<Object> serializador(String formato) {
+        if ("JSON".equals(formato)) {
+            ObjectMapper json = new ObjectMapper();
+            json.registerModule(new JavaTimeModule());
+            json.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                            .allowIfSubType("com.universidad.dto.")
+                            .allowIfSubType("java.")
+                            .build(),
+                    ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+            return new GenericJackson2JsonRedisSerializer(json);
+        }
+        return SerializadorValoresCacheTest.serializador(FormatoSerializacion.valueOf(formato));
+    }
+}
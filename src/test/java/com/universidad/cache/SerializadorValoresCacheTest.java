@@ -0,0 +1,94 @@
+package com.universidad.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.universidad.dto.DocenteDTO;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.dto.MateriaDTO;
+import com.universidad.dto.PaginaDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Los valores que guardan los caches se leen igual que se escribieron en todos los formatos,
+ * y al leer Smile solo se aceptan los tipos permitidos.
+ */
+class SerializadorValoresCacheTest {
+
+    @Test
+    void losValoresCacheadosSeLeenIgualEnTodosLosFormatos() {
+        List<Object> valores = List.of(
+                inscripcion(1L),
+                materia(),
+                DocenteDTO.builder().id(3L).nombre("Ana").apellido("Pérez").nroEmpleado("EMP-1")
+                        .fechaNacimiento(LocalDate.of(1980, 5, 17)).materiasAsignadas(new ArrayList<>(List.of(1L, 2L))).build(),
+                listaDeInscripciones(500),
+                new PaginaDTO<>(listaDeInscripciones(50), 50, 50L),
+                42L,
+                NullValue.INSTANCE);
+
+        for (FormatoSerializacion formato : FormatoSerializacion.values()) {
+            SerializadorValoresCache serializador = serializador(formato);
+            for (Object valor : valores) {
+                assertThat(serializador.deserialize(serializador.serialize(valor)))
+                        .as("%s en formato %s", valor.getClass().getSimpleName(), formato)
+                        .isEqualTo(valor);
+            }
+        }
+    }
+
+    @Test
+    void rechazaTiposDelJdkNoPermitidos() {
+        SerializadorValoresCache serializador = serializador(FormatoSerializacion.SMILE);
+        // Al escribir no se valida; el valor se rechaza al leerlo
+        byte[] bytes = serializador.serialize(new LinkedList<>(List.of(1L, 2L)));
+
+        assertThatThrownBy(() -> serializador.deserialize(bytes)).isInstanceOf(SerializationException.class);
+    }
+
+    static SerializadorValoresCache serializador(FormatoSerializacion formato) {
+        return new SerializadorValoresCache("prueba", formato, 2048, new SimpleMeterRegistry());
+    }
+
+    static InscripcionDTO inscripcion(long id) {
+        return InscripcionDTO.builder()
+                .id(id)
+                .estudianteId(1_000 + id % 700)
+                .materiaId(1 + id % 40)
+                .fechaInscripcion(LocalDate.of(2024, 3, 1).plusDays(id % 20))
+                .estado(id % 3 == 0 ? "aprobado" : "activo")
+                .calificacion(id % 3 == 0 ? (int) (60 + id % 41) : null)
+                .periodoAcademico("2024-1")
+                .usuarioRegistro("admin@universidad.edu")
+                .build();
+    }
+
+    static ArrayList<InscripcionDTO> listaDeInscripciones(int cantidad) {
+        ArrayList<InscripcionDTO> inscripciones = new ArrayList<>(cantidad);
+        for (long id = 1; id <= cantidad; id++) {
+            inscripciones.add(inscripcion(id));
+        }
+        return inscripciones;
+    }
+
+    private static MateriaDTO materia() {
+        return MateriaDTO.builder()
+                .id(7L)
+                .nombreMateria("Álgebra")
+                .codigoUnico("MAT-101")
+                .creditos(4)
+                .prerequisitos(new ArrayList<>(List.of(1L, 2L)))
+                .esPrerequisitoDe(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.universidad.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga HTTP con Tomcat atendiendo las peticiones en su pool de hilos de plataforma (configuración anterior).
+ */
+@Tag("rendimiento")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class CargaHilosPlataformaBenchmarkTest extends CargaHttpBenchmark {
+}
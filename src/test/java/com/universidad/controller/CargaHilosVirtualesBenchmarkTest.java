@@ -0,0 +1,12 @@
+package com.universidad.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga HTTP con Tomcat atendiendo cada petición en un hilo virtual (configuración de producción).
+ */
+@Tag("rendimiento")
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class CargaHilosVirtualesBenchmarkTest extends CargaHttpBenchmark {
+}
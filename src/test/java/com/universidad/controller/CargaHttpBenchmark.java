@@ -0,0 +1,160 @@
+package com.universidad.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Materia;
+import com.universidad.registro.security.JwtUtils;
+import com.universidad.registro.security.UsuarioPrincipal;
+import com.universidad.service.IReservaCupoService;
+
+/**
+ * Prueba de carga HTTP de la aplicación completa (Tomcat, seguridad, PostgreSQL y Redis reales):
+ * CLIENTES usuarios concurrentes envían POST /api/inscripciones (cada estudiante a una materia con cupo)
+ * y GET /api/materias, y se informan peticiones por segundo y latencias por endpoint.
+ * Las subclases fijan spring.threads.virtual.enabled para comparar hilos virtuales con hilos de plataforma
+ * (Tomcat con su pool de server.tomcat.threads.max hilos); ambas usan el mismo pool de conexiones de Hikari.
+ * Se ejecuta con el perfil de rendimiento:
+ * mvn test -Prendimiento -Dtest='CargaHilos*BenchmarkTest'
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class CargaHttpBenchmark extends PruebaIntegracion {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaHttpBenchmark.class);
+
+    private static final int CLIENTES = 400;
+    private static final int INSCRIPCIONES = 3_000;
+    private static final int LECTURAS = 3_000;
+    private static final int CALENTAMIENTO = 500;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtuales;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void inscripcionesYListadoDeMaterias() throws Exception {
+        List<Estudiante> estudiantes = datos.estudiantes(INSCRIPCIONES);
+        List<Materia> materias = datos.materias(INSCRIPCIONES / IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA);
+        String autorizacion = "Bearer " + tokenAdministrador();
+
+        // Calentamiento: JIT, conexiones del cliente y cache del listado
+        medir(CALENTAMIENTO, i -> listarMaterias(autorizacion));
+
+        Resultado escrituras = medir(INSCRIPCIONES, i -> inscribir(autorizacion,
+                estudiantes.get(i).getId(), materias.get(i % materias.size()).getId()));
+        Resultado lecturas = medir(LECTURAS, i -> listarMaterias(autorizacion));
+
+        String modo = hilosVirtuales ? "hilos virtuales" : "hilos de plataforma";
+        escrituras.informar(modo, "POST /api/inscripciones");
+        lecturas.informar(modo, "GET /api/materias");
+        assertThat(escrituras.fallidas).as("inscripciones rechazadas").isZero();
+        assertThat(lecturas.fallidas).as("listados fallidos").isZero();
+    }
+
+    // Token de un administrador con los roles en los claims: el filtro no consulta la base para autenticar
+    private String tokenAdministrador() {
+        UsuarioPrincipal administrador = new UsuarioPrincipal(null, null, null, "carga@universidad.edu", null, true,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        return jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(administrador, null, administrador.getAuthorities()));
+    }
+
+    private HttpRequest inscribir(String autorizacion, Long estudianteId, Long materiaId) {
+        String cuerpo = String.format("{\"estudianteId\":%d,\"materiaId\":%d,\"periodoAcademico\":\"2024-1\",\"usuarioRegistro\":\"carga\"}",
+                estudianteId, materiaId);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/inscripciones"))
+                .header("Authorization", autorizacion)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private HttpRequest listarMaterias(String autorizacion) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/materias"))
+                .header("Authorization", autorizacion)
+                .GET()
+                .build();
+    }
+
+    // Envía las peticiones con CLIENTES usuarios concurrentes (uno por hilo virtual, cada uno espera su respuesta
+    // antes de enviar la siguiente) y mide la latencia de cada una
+    private Resultado medir(int peticiones, IntFunction<HttpRequest> peticion) throws Exception {
+        long[] latencias = new long[peticiones];
+        long inicio = System.nanoTime();
+        List<Future<Integer>> clientes = new ArrayList<>(CLIENTES);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTES; c++) {
+                int primera = c;
+                clientes.add(executor.submit(() -> {
+                    int fallidas = 0;
+                    for (int i = primera; i < peticiones; i += CLIENTES) {
+                        long envio = System.nanoTime();
+                        HttpResponse<Void> respuesta = cliente.send(peticion.apply(i), HttpResponse.BodyHandlers.discarding());
+                        latencias[i] = System.nanoTime() - envio;
+                        if (respuesta.statusCode() / 100 != 2) {
+                            fallidas++;
+                        }
+                    }
+                    return fallidas;
+                }));
+            }
+            int fallidas = 0;
+            for (Future<Integer> resultado : clientes) {
+                fallidas += resultado.get();
+            }
+            long total = System.nanoTime() - inicio;
+            Arrays.sort(latencias);
+            return new Resultado(peticiones, fallidas, total, latencias);
+        }
+    }
+
+    private record Resultado(int peticiones, int fallidas, long totalNanos, long[] latenciasNanos) {
+
+        void informar(String modo, String endpoint) {
+            double segundos = totalNanos / 1e9;
+            logger.info(String.format("[carga %s] %s: %d peticiones (%d fallidas) con %d clientes en %.2f s = %.0f peticiones/s;"
+                            + " latencia p50 %.1f ms, p99 %.1f ms, máx %.1f ms",
+                    modo, endpoint, peticiones, fallidas, CLIENTES, segundos, peticiones / segundos,
+                    percentil(0.50), percentil(0.99), latenciasNanos[latenciasNanos.length - 1] / 1e6));
+        }
+
+        private double percentil(double p) {
+            int indice = (int) Math.ceil(p * latenciasNanos.length) - 1;
+            return latenciasNanos[Math.max(indice, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.universidad.graph;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.universidad.cache.TwoLevelCacheProperties;
+import com.universidad.repository.MateriaRepository;
+
+/**
+ * Plan de estudios generado para las pruebas del grafo: materias con IDs 1..n repartidas en niveles,
+ * donde cada materia (salvo las del primer nivel) tiene de 1 a 3 prerequisitos del nivel anterior.
+ * Las últimas {@code electivas} materias no tienen prerequisitos ni dependientes.
+ * La semilla es fija, así que el grafo es siempre el mismo.
+ */
+final class PlanDeEstudiosSintetico {
+
+    final List<Long> ids;
+    final List<Object[]> aristas;
+    final int materiasPorNivel;
+    final int electivas;
+
+    PlanDeEstudiosSintetico(int materias, int niveles, int electivas) {
+        this.materiasPorNivel = materias / niveles;
+        this.electivas = electivas;
+        this.ids = new ArrayList<>(materias);
+        this.aristas = new ArrayList<>();
+        Random aleatorio = new Random(42);
+        for (long id = 1; id <= materias; id++) {
+            ids.add(id);
+            int nivel = (int) ((id - 1) / materiasPorNivel);
+            if (nivel == 0 || id > materias - electivas) {
+                continue;
+            }
+            long primeroNivelAnterior = (long) (nivel - 1) * materiasPorNivel + 1;
+            Set<Long> prerequisitos = new LinkedHashSet<>();
+            int cantidad = 1 + aleatorio.nextInt(3);
+            for (int i = 0; i < cantidad; i++) {
+                prerequisitos.add(primeroNivelAnterior + aleatorio.nextInt(materiasPorNivel));
+            }
+            for (Long prerequisito : prerequisitos) {
+                aristas.add(new Object[] {id, prerequisito});
+            }
+        }
+    }
+
+    long ultimaConPrerequisitos() {
+        return ids.size() - electivas;
+    }
+
+    long electiva() {
+        return ids.size();
+    }
+
+    // Grafo cargado desde un repositorio que solo responde las dos consultas que usa la recarga.
+    // Los avisos a otros nodos se publican en un StringRedisTemplate simulado
+    PrerequisiteGraph grafo() {
+        MateriaRepository repositorio = (MateriaRepository) Proxy.newProxyInstance(
+                MateriaRepository.class.getClassLoader(), new Class<?>[] {MateriaRepository.class},
+                (proxy, metodo, argumentos) -> switch (metodo.getName()) {
+                    case "findAllIds" -> ids;
+                    case "findAllPrerequisitoPairs" -> aristas;
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+        PrerequisiteGraph grafo = new PrerequisiteGraph();
+        ReflectionTestUtils.setField(grafo, "materiaRepository", repositorio);
+        ReflectionTestUtils.setField(grafo, "redisTemplate", Mockito.mock(StringRedisTemplate.class));
+        ReflectionTestUtils.setField(grafo, "cacheProperties", new TwoLevelCacheProperties());
+        grafo.recargar();
+        return grafo;
+    }
+}
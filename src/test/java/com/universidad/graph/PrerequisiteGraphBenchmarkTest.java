@@ -0,0 +1,99 @@
+package com.universidad.graph;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.universidad.EjecutorBenchmarks;
+
+/**
+ * Benchmark JMH del grafo de prerequisitos sobre un plan de estudios sintético de 5.000 materias
+ * (10 niveles, ~10.000 aristas). Compara la recarga completa (cierre transitivo incluido, sin contar la
+ * consulta a la base) con las actualizaciones incrementales que usan el alta y la baja de materias,
+ * y mide las consultas que se hacen en cada inscripción.
+ * Los métodos devuelven Object: el código que genera JMH está en otro paquete y no ve la clase Snapshot.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=PrerequisiteGraphBenchmarkTest
+ */
+@Tag("rendimiento")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PrerequisiteGraphBenchmarkTest {
+
+    private static final int MATERIAS = 5_000;
+
+    private PlanDeEstudiosSintetico plan;
+    private PrerequisiteGraph grafo;
+    private PrerequisiteGraph.Snapshot base;
+    private long materiaNueva;
+    private long ultima;
+    private List<Long> aprobadas;
+
+    @Setup
+    public void preparar() {
+        plan = new PlanDeEstudiosSintetico(MATERIAS, 10, 50);
+        grafo = plan.grafo();
+        base = (PrerequisiteGraph.Snapshot) ReflectionTestUtils.getField(grafo, "snapshot");
+        materiaNueva = MATERIAS + 1;
+        ultima = plan.ultimaConPrerequisitos();
+        // Prerequisitos directos de la última materia con prerequisitos: la verificación recorre el caso exitoso
+        aprobadas = plan.aristas.stream()
+                .filter(arista -> arista[0].equals(ultima))
+                .map(arista -> (Long) arista[1])
+                .toList();
+    }
+
+    @Test
+    void ejecutar() throws Exception {
+        EjecutorBenchmarks.ejecutar(PrerequisiteGraphBenchmarkTest.class);
+    }
+
+    // Lo que costaba antes cada alta, modificación y baja de una materia (más la consulta a la base)
+    @Benchmark
+    public Object recargaCompleta() {
+        return new PrerequisiteGraph.Snapshot(base.indices, base.ids, base.prerequisitos);
+    }
+
+    // Alta de una materia: se agrega su posición sin recalcular el cierre
+    @Benchmark
+    public Object agregarMateria() {
+        return base.conMateria(materiaNueva);
+    }
+
+    // Baja de una materia sin aristas: solo se olvida su posición
+    @Benchmark
+    public Object eliminarMateriaSinAristas() {
+        return base.sinMateria(plan.electiva());
+    }
+
+    @Benchmark
+    public boolean prerequisitosAprobados() {
+        return grafo.prerequisitosAprobados(ultima, aprobadas);
+    }
+
+    @Benchmark
+    public boolean formariaCiclo() {
+        return grafo.formariaCiclo(1L, ultima);
+    }
+
+    @Benchmark
+    public List<Long> cierrePrerequisitos() {
+        return grafo.cierrePrerequisitos(ultima);
+    }
+}
@@ -0,0 +1,93 @@
+package com.universidad.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Alta y baja incremental de materias: el grafo resultante debe responder igual que una recarga completa,
+ * y los cambios se avisan a los demás nodos por el canal de invalidación.
+ */
+class PrerequisiteGraphTest {
+
+    private PlanDeEstudiosSintetico plan;
+    private PrerequisiteGraph grafo;
+
+    @BeforeEach
+    void preparar() {
+        plan = new PlanDeEstudiosSintetico(200, 4, 5);
+        grafo = plan.grafo();
+    }
+
+    @Test
+    void agregarMateriaLaIncorporaSinAristas() {
+        long nueva = plan.ids.size() + 1;
+        List<Long> cierreAntes = grafo.cierrePrerequisitos(plan.ultimaConPrerequisitos());
+
+        grafo.agregarMateria(nueva);
+
+        assertThat(grafo.cierrePrerequisitos(nueva)).isEmpty();
+        assertThat(grafo.desbloquea(nueva)).isEmpty();
+        assertThat(grafo.tienePrerequisitos(nueva)).isFalse();
+        assertThat(grafo.formariaCiclo(nueva, 1L)).isFalse();
+        assertThat(grafo.cierrePrerequisitos(plan.ultimaConPrerequisitos())).isEqualTo(cierreAntes);
+    }
+
+    @Test
+    void eliminarMateriaSinAristasSoloLaOlvida() {
+        long electiva = plan.electiva();
+
+        grafo.eliminarMateria(electiva);
+
+        assertThat(grafo.cierrePrerequisitos(electiva)).isNull();
+        assertThat(grafo.desbloquea(1L)).doesNotContain(electiva);
+    }
+
+    @Test
+    void eliminarMateriaConAristasRecargaElGrafo() {
+        Long prerequisito = (Long) plan.aristas.get(0)[1];
+        plan.ids.remove(prerequisito);
+        plan.aristas.removeIf(arista -> arista[0].equals(prerequisito) || arista[1].equals(prerequisito));
+
+        grafo.eliminarMateria(prerequisito);
+
+        assertThat(grafo.cierrePrerequisitos(prerequisito)).isNull();
+        PrerequisiteGraph recargado = plan.grafo();
+        for (Long id : plan.ids) {
+            assertThat(grafo.cierrePrerequisitos(id)).as("cierre de %d", id)
+                    .containsExactlyInAnyOrderElementsOf(recargado.cierrePrerequisitos(id));
+        }
+    }
+
+    @Test
+    void losCambiosSePublicanParaLosDemasNodos() {
+        StringRedisTemplate redisTemplate = (StringRedisTemplate) ReflectionTestUtils.getField(grafo, "redisTemplate");
+
+        grafo.agregarMateria(plan.ids.size() + 1L);
+
+        verify(redisTemplate).convertAndSend(eq("universidad:cache:invalidation"), contains("agregar:" + (plan.ids.size() + 1)));
+    }
+
+    @Test
+    void elAvisoDeOtroNodoSeAplicaSinVolverAPublicar() {
+        long nueva = plan.ids.size() + 1;
+        String aviso = "otro-nodo\u001Fgrafo-prerequisitos\u001Fagregar:" + nueva;
+
+        grafo.onMessage(new DefaultMessage(new byte[0], aviso.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(grafo.cierrePrerequisitos(nueva)).isEmpty();
+        StringRedisTemplate redisTemplate = (StringRedisTemplate) ReflectionTestUtils.getField(grafo, "redisTemplate");
+        verifyNoInteractions(redisTemplate);
+    }
+}
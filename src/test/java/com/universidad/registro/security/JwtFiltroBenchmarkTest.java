@@ -0,0 +1,115 @@
+package com.universidad.registro.security;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.universidad.EjecutorBenchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Benchmark JMH de la verificación del JWT en cada petición (peticiones por milisegundo, un hilo):
+ * - antesDosVerificaciones: lo que hacía el filtro original, validar y luego leer el usuario, cada paso
+ *   con un parser nuevo y su propia verificación HMAC-SHA512 (sin contar la consulta del usuario a la base).
+ * - parserReutilizado: una sola verificación con el parser construido una vez, sin cache.
+ * - claimsVerificados: JwtUtils.getValidatedClaims con el token ya en el cache de tokens verificados.
+ * - filtroCompleto: JwtAuthenticationFilter entero, con el principal construido desde los claims.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=JwtFiltroBenchmarkTest
+ */
+@Tag("rendimiento")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtFiltroBenchmarkTest {
+
+    private static final String SECRETO = "QWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNMQWERTYUIOPASDFGHJKLZXCVBNM";
+    private static final FilterChain SIN_CADENA = (request, response) -> { };
+
+    private JwtUtils jwtUtils;
+    private JwtParser parser;
+    private JwtAuthenticationFilter filtro;
+    private String token;
+
+    @Setup
+    public void preparar() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRETO);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+        ReflectionTestUtils.setField(jwtUtils, "tokenCacheMaximumSize", 10_000L);
+        jwtUtils.init();
+        parser = (JwtParser) ReflectionTestUtils.getField(jwtUtils, "jwtParser");
+
+        UsuarioPrincipal principal = new UsuarioPrincipal(1L, 10L, null, "estudiante@universidad.edu", null, true,
+                List.of(new SimpleGrantedAuthority("ROLE_ESTUDIANTE")));
+        Authentication autenticacion = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = jwtUtils.generateJwtToken(autenticacion);
+        jwtUtils.getValidatedClaims(token);
+
+        // Sin consulta de usuario: el token trae los roles, así que el servicio de usuarios no se usa
+        filtro = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filtro, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filtro, "revocacionTokens", new RevocacionTokens());
+    }
+
+    @Test
+    void ejecutar() throws Exception {
+        EjecutorBenchmarks.ejecutar(JwtFiltroBenchmarkTest.class);
+    }
+
+    @Benchmark
+    public String antesDosVerificaciones() {
+        Jwts.parserBuilder().setSigningKey(SECRETO.getBytes()).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(SECRETO.getBytes()).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    @Benchmark
+    public Claims parserReutilizado() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Claims claimsVerificados() {
+        return jwtUtils.getValidatedClaims(token);
+    }
+
+    @Benchmark
+    public Object filtroCompleto() throws ServletException, IOException {
+        // Una petición nueva cada vez: OncePerRequestFilter marca la petición y no la vuelve a filtrar
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/materias");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filtro.doFilter(request, new MockHttpServletResponse(), SIN_CADENA);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
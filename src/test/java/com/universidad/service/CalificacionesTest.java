@@ -0,0 +1,98 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.model.Materia;
+
+/**
+ * Calificación en bloque: solo valores entre 0 y 100 y solo inscripciones activas; si alguna no cumple
+ * no se aplica ninguna.
+ */
+class CalificacionesTest extends PruebaIntegracion {
+
+    @Autowired
+    private IInscripcionService inscripcionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void calificaLasActivasYLiberaSusCupos() {
+        Materia materia = datos.materia();
+        InscripcionDTO primera = inscribir(materia);
+        InscripcionDTO segunda = inscribir(materia);
+
+        List<InscripcionDTO> resultado = inscripcionService.registrarCalificaciones(materia.getId(),
+                Map.of(primera.getId(), 85, segunda.getId(), 40));
+
+        assertThat(resultado).extracting(InscripcionDTO::getEstado).containsExactlyInAnyOrder("aprobado", "reprobado");
+        assertThat(cuposOcupados(materia.getId())).isZero();
+    }
+
+    @Test
+    void rechazaCalificacionesFueraDeRango() {
+        Materia materia = datos.materia();
+        InscripcionDTO valida = inscribir(materia);
+        InscripcionDTO negativa = inscribir(materia);
+        InscripcionDTO excedida = inscribir(materia);
+
+        assertThatThrownBy(() -> inscripcionService.registrarCalificaciones(materia.getId(),
+                Map.of(valida.getId(), 70, negativa.getId(), -1, excedida.getId(), 101)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(negativa.getId().toString())
+                .hasMessageContaining(excedida.getId().toString());
+        assertThatThrownBy(() -> inscripcionService.registrarCalificacion(valida.getId(), 150))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(estado(valida.getId())).isEqualTo("activo");
+        assertThat(cuposOcupados(materia.getId())).isEqualTo(3);
+    }
+
+    @Test
+    void noRecalificaInscripcionesQueNoEstanActivas() {
+        Materia materia = datos.materia();
+        InscripcionDTO activa = inscribir(materia);
+        InscripcionDTO retirada = inscribir(materia);
+        InscripcionDTO aprobada = inscribir(materia);
+        inscripcionService.actualizarEstadoInscripcion(retirada.getId(), "retirado");
+        inscripcionService.registrarCalificacion(aprobada.getId(), 90);
+
+        assertThatThrownBy(() -> inscripcionService.registrarCalificaciones(materia.getId(),
+                Map.of(activa.getId(), 30, retirada.getId(), 70, aprobada.getId(), 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(retirada.getId().toString())
+                .hasMessageContaining(aprobada.getId().toString());
+
+        assertThat(estado(activa.getId())).isEqualTo("activo");
+        assertThat(estado(aprobada.getId())).isEqualTo("aprobado");
+        assertThat(cuposOcupados(materia.getId())).isEqualTo(1);
+    }
+
+    private InscripcionDTO inscribir(Materia materia) {
+        return inscripcionService.crearInscripcion(InscripcionDTO.builder()
+                .estudianteId(datos.estudiante().getId())
+                .materiaId(materia.getId())
+                .periodoAcademico("2024-1")
+                .usuarioRegistro("pruebas")
+                .build());
+    }
+
+    private String estado(Long inscripcionId) {
+        return jdbcTemplate.queryForObject("SELECT estado FROM inscripcion WHERE id = ?", String.class, inscripcionId);
+    }
+
+    // Se lee de la tabla: la entidad Materia está en el cache de segundo nivel y no refleja el contador
+    private int cuposOcupados(Long materiaId) {
+        return jdbcTemplate.queryForObject("SELECT cupos_ocupados FROM materia WHERE id_materia = ?", Integer.class, materiaId);
+    }
+}
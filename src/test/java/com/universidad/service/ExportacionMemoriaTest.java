@@ -0,0 +1,113 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.universidad.DatosPrueba;
+import com.universidad.PruebaIntegracion;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Materia;
+import com.universidad.service.IExportacionService.Formato;
+
+/**
+ * Exportación de un millón de inscripciones con memoria constante. Se ejecuta en la JVM aparte con heap
+ * chico (ejecución memoria-acotada de surefire, -Xmx256m): si la exportación acumulara filas o entidades
+ * en memoria terminaría con OutOfMemoryError. La salida solo se cuenta, no se guarda.
+ */
+@Tag("memoria")
+class ExportacionMemoriaTest extends PruebaIntegracion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacionMemoriaTest.class);
+
+    private static final int FILAS = 1_000_000;
+
+    @Autowired
+    private IExportacionService exportacionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String periodo;
+
+    @BeforeEach
+    void preparar() {
+        Estudiante estudiante = datos.estudiante();
+        Materia materia = datos.materia();
+        periodo = "MEM-" + DatosPrueba.unico();
+        // Filas generadas en la base con una sola sentencia; estado 'aprobado' para que no cuenten
+        // como inscripciones activas del estudiante ni ocupen cupos
+        jdbcTemplate.update("INSERT INTO inscripcion (id, estudiante_id, materia_id, fecha_inscripcion, estado, calificacion, "
+                + "periodo_academico, usuario_registro, version) "
+                + "SELECT nextval('inscripcion_seq'), ?, ?, DATE '2024-03-01', 'aprobado', 60 + g % 41, ?, 'pruebas', 0 "
+                + "FROM generate_series(1, ?) AS g",
+                estudiante.getId(), materia.getId(), periodo, FILAS);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM inscripcion WHERE periodo_academico = ?", periodo);
+    }
+
+    @Test
+    void exportaUnMillonDeFilasEnNdjson() throws IOException {
+        SalidaContada salida = new SalidaContada();
+        long inicio = System.nanoTime();
+
+        exportacionService.exportarInscripciones(Formato.NDJSON, periodo, salida);
+
+        informar("NDJSON", salida, inicio);
+        assertThat(salida.lineas).isEqualTo(FILAS);
+    }
+
+    @Test
+    void exportaUnMillonDeFilasEnCsv() throws IOException {
+        SalidaContada salida = new SalidaContada();
+        long inicio = System.nanoTime();
+
+        exportacionService.exportarInscripciones(Formato.CSV, periodo, salida);
+
+        informar("CSV", salida, inicio);
+        assertThat(salida.lineas).isEqualTo(FILAS + 1); // Cabecera
+    }
+
+    private static void informar(String formato, SalidaContada salida, long inicio) {
+        Runtime runtime = Runtime.getRuntime();
+        logger.info("Exportación {}: {} filas, {} MB en {} ms (heap máximo {} MB)", formato, salida.lineas,
+                salida.bytes / (1024 * 1024), (System.nanoTime() - inicio) / 1_000_000, runtime.maxMemory() / (1024 * 1024));
+    }
+
+    // Descarta lo escrito y solo cuenta bytes y líneas
+    private static final class SalidaContada extends OutputStream {
+        private long bytes;
+        private long lineas;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lineas++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lineas++;
+                }
+            }
+        }
+    }
+}
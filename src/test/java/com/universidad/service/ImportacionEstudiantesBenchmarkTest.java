@@ -0,0 +1,74 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.universidad.DatosPrueba;
+import com.universidad.PruebaIntegracion;
+import com.universidad.dto.ImportacionEstudiantesDTO;
+
+/**
+ * Importación masiva de 50.000 estudiantes en CSV, con el objetivo de terminar en menos de un minuto.
+ * Informa el tiempo total y las filas por segundo, y borra los estudiantes importados al terminar.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=ImportacionEstudiantesBenchmarkTest
+ */
+@Tag("rendimiento")
+class ImportacionEstudiantesBenchmarkTest extends PruebaIntegracion {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacionEstudiantesBenchmarkTest.class);
+
+    private static final int FILAS = 50_000;
+    private static final Duration OBJETIVO = Duration.ofMinutes(1);
+
+    @Autowired
+    private IEstudianteService estudianteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Prefijo de los correos de esta ejecución, para borrar solo lo que se importó
+    private final String prefijo = DatosPrueba.unico().substring(0, 8);
+
+    @AfterEach
+    void limpiar() {
+        String patron = "imp-" + prefijo + "-%";
+        jdbcTemplate.update("DELETE FROM estudiante WHERE id_persona IN (SELECT id_persona FROM persona WHERE email LIKE ?)", patron);
+        jdbcTemplate.update("DELETE FROM persona WHERE email LIKE ?", patron);
+    }
+
+    @Test
+    void importaCincuentaMilFilasEnMenosDeUnMinuto() throws Exception {
+        byte[] archivo = generarCsv();
+
+        long inicio = System.nanoTime();
+        ImportacionEstudiantesDTO resultado = estudianteService.importarEstudiantes(
+                IExportacionService.Formato.CSV, new ByteArrayInputStream(archivo), "benchmark");
+        Duration duracion = Duration.ofNanos(System.nanoTime() - inicio);
+
+        logger.info(String.format("[importación] %d filas en %.2f s = %.0f filas/s (%d rechazadas)",
+                resultado.getTotalFilas(), duracion.toMillis() / 1000.0,
+                resultado.getImportados() / (duracion.toMillis() / 1000.0), resultado.getRechazados()));
+        assertThat(resultado.getImportados()).isEqualTo(FILAS);
+        assertThat(duracion).isLessThan(OBJETIVO);
+    }
+
+    private byte[] generarCsv() {
+        StringBuilder csv = new StringBuilder("nombre,apellido,email,fechaNacimiento,numeroInscripcion\n");
+        for (int i = 0; i < FILAS; i++) {
+            csv.append("Estudiante,Importado,imp-").append(prefijo).append('-').append(i).append("@prueba.edu,")
+                    .append("2000-01-01,I").append(prefijo).append(i).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
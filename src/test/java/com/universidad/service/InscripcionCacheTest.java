@@ -0,0 +1,70 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.model.Materia;
+
+/**
+ * Los caches de inscripciones se actualizan solo cuando la escritura se confirma: un cambio revertido
+ * no debe quedar visible en las lecturas cacheadas.
+ */
+class InscripcionCacheTest extends PruebaIntegracion {
+
+    @Autowired
+    private IInscripcionService inscripcionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void escrituraRevertidaNoQuedaEnElCache() {
+        Materia materia = datos.materia();
+        InscripcionDTO inscripcion = inscribir(materia);
+        // Lecturas previas: quedan cacheadas la inscripción y las listas del estudiante y de la materia
+        inscripcionService.obtenerInscripcionPorId(inscripcion.getId());
+        inscripcionService.obtenerInscripcionesPorMateria(materia.getId());
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            inscripcionService.actualizarEstadoInscripcion(inscripcion.getId(), "retirado");
+            estado.setRollbackOnly();
+        });
+
+        assertThat(inscripcionService.obtenerInscripcionPorId(inscripcion.getId()).getEstado()).isEqualTo("activo");
+        assertThat(inscripcionService.obtenerInscripcionesPorMateria(materia.getId()))
+                .extracting(InscripcionDTO::getEstado).containsExactly("activo");
+    }
+
+    @Test
+    void escrituraConfirmadaActualizaElCache() {
+        Materia materia = datos.materia();
+        InscripcionDTO inscripcion = inscribir(materia);
+        inscripcionService.obtenerInscripcionPorId(inscripcion.getId());
+        inscripcionService.obtenerInscripcionesPorEstudiante(inscripcion.getEstudianteId());
+
+        inscripcionService.actualizarEstadoInscripcion(inscripcion.getId(), "retirado");
+
+        assertThat(inscripcionService.obtenerInscripcionPorId(inscripcion.getId()).getEstado()).isEqualTo("retirado");
+        assertThat(inscripcionService.obtenerInscripcionesPorEstudiante(inscripcion.getEstudianteId()))
+                .extracting(InscripcionDTO::getEstado).containsExactly("retirado");
+
+        inscripcionService.eliminarInscripcion(inscripcion.getId());
+
+        assertThat(inscripcionService.obtenerInscripcionPorId(inscripcion.getId())).isNull();
+        assertThat(inscripcionService.obtenerInscripcionesPorEstudiante(inscripcion.getEstudianteId())).isEmpty();
+    }
+
+    private InscripcionDTO inscribir(Materia materia) {
+        return inscripcionService.crearInscripcion(InscripcionDTO.builder()
+                .estudianteId(datos.estudiante().getId())
+                .materiaId(materia.getId())
+                .periodoAcademico("2024-1")
+                .usuarioRegistro("pruebas")
+                .build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Materia;
+
+/**
+ * Inscripciones simultáneas: las reglas de crearInscripcion (sin duplicados activos, límite de materias por
+ * estudiante y cupo por materia) deben cumplirse aunque muchas solicitudes lleguen a la vez.
+ */
+class InscripcionConcurrenciaTest extends PruebaIntegracion {
+
+    private static final int MAX_MATERIAS_POR_ESTUDIANTE = 5;
+
+    @Autowired
+    private IInscripcionService inscripcionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mismoEstudianteMismaMateriaSoloUnaInscripcionActiva() throws Exception {
+        Estudiante estudiante = datos.estudiante();
+        Materia materia = datos.materia();
+
+        List<Callable<Boolean>> solicitudes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            solicitudes.add(() -> inscribir(estudiante.getId(), materia.getId()));
+        }
+
+        assertThat(exitosas(ejecutarALaVez(solicitudes))).isEqualTo(1);
+        assertThat(inscripcionesActivas("estudiante_id", estudiante.getId())).isEqualTo(1);
+        assertThat(cuposOcupados(materia.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void mismoEstudianteNoSuperaElLimiteDeMaterias() throws Exception {
+        Estudiante estudiante = datos.estudiante();
+        List<Materia> materias = datos.materias(MAX_MATERIAS_POR_ESTUDIANTE * 2);
+
+        List<Callable<Boolean>> solicitudes = new ArrayList<>();
+        for (Materia materia : materias) {
+            solicitudes.add(() -> inscribir(estudiante.getId(), materia.getId()));
+        }
+
+        assertThat(exitosas(ejecutarALaVez(solicitudes))).isEqualTo(MAX_MATERIAS_POR_ESTUDIANTE);
+        assertThat(inscripcionesActivas("estudiante_id", estudiante.getId())).isEqualTo(MAX_MATERIAS_POR_ESTUDIANTE);
+        // Las solicitudes rechazadas no dejan cupos reservados
+        int cupos = 0;
+        for (Materia materia : materias) {
+            cupos += cuposOcupados(materia.getId());
+        }
+        assertThat(cupos).isEqualTo(MAX_MATERIAS_POR_ESTUDIANTE);
+    }
+
+    @Test
+    void materiaNoSuperaSuCupo() throws Exception {
+        Materia materia = datos.materia();
+        List<Estudiante> estudiantes = datos.estudiantes(IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA * 2);
+
+        List<Callable<Boolean>> solicitudes = new ArrayList<>();
+        for (Estudiante estudiante : estudiantes) {
+            solicitudes.add(() -> inscribir(estudiante.getId(), materia.getId()));
+        }
+
+        assertThat(exitosas(ejecutarALaVez(solicitudes))).isEqualTo(IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA);
+        assertThat(inscripcionesActivas("materia_id", materia.getId())).isEqualTo(IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA);
+        assertThat(cuposOcupados(materia.getId())).isEqualTo(IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA);
+    }
+
+    // true si la inscripción se creó; las reglas de negocio rechazadas lanzan RuntimeException
+    private boolean inscribir(Long estudianteId, Long materiaId) {
+        try {
+            inscripcionService.crearInscripcion(InscripcionDTO.builder()
+                    .estudianteId(estudianteId)
+                    .materiaId(materiaId)
+                    .periodoAcademico("2024-1")
+                    .usuarioRegistro("pruebas")
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Lanza todas las solicitudes a la vez (cada una en su hilo virtual, liberadas juntas) y espera sus resultados
+    static <T> List<T> ejecutarALaVez(List<Callable<T>> solicitudes) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<T>> futuros = new ArrayList<>();
+            for (Callable<T> solicitud : solicitudes) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return solicitud.call();
+                }));
+            }
+            largada.countDown();
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        }
+    }
+
+    private static long exitosas(List<Boolean> resultados) {
+        return resultados.stream().filter(Boolean::booleanValue).count();
+    }
+
+    private int inscripcionesActivas(String columna, Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inscripcion WHERE " + columna + " = ? AND estado = 'activo'", Integer.class, id);
+    }
+
+    // Se lee de la tabla: el contador solo lo escriben los UPDATE nativos, no la entidad Materia
+    private int cuposOcupados(Long materiaId) {
+        return jdbcTemplate.queryForObject("SELECT cupos_ocupados FROM materia WHERE id_materia = ?", Integer.class, materiaId);
+    }
+}
@@ -0,0 +1,111 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.dto.InscripcionDTO;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Materia;
+
+/**
+ * Contención en la apertura de inscripciones: 1.000 estudiantes distintos inscribiéndose a la vez.
+ * Informa solicitudes por segundo, inscripciones creadas y latencias (p50/p99) de dos escenarios:
+ * todos contra una sola materia (solo caben MAX_ESTUDIANTES_POR_MATERIA; el resto se rechaza por cupo)
+ * y repartidos entre las materias justas para que todos entren.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=InscripcionContencionBenchmarkTest
+ */
+@Tag("rendimiento")
+class InscripcionContencionBenchmarkTest extends PruebaIntegracion {
+
+    private static final Logger logger = LoggerFactory.getLogger(InscripcionContencionBenchmarkTest.class);
+
+    private static final int ESTUDIANTES = 1_000;
+
+    @Autowired
+    private IInscripcionService inscripcionService;
+
+    @Test
+    void milEstudiantesUnaMateria() throws Exception {
+        List<Estudiante> estudiantes = datos.estudiantes(ESTUDIANTES);
+        Materia materia = datos.materia();
+
+        Resultado resultado = medir(estudiantes, List.of(materia));
+
+        resultado.informar("1.000 estudiantes, 1 materia");
+        assertThat(resultado.exitosas).isEqualTo(IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA);
+    }
+
+    @Test
+    void milEstudiantesRepartidos() throws Exception {
+        List<Estudiante> estudiantes = datos.estudiantes(ESTUDIANTES);
+        int cantidadMaterias = (ESTUDIANTES + IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA - 1)
+                / IReservaCupoService.MAX_ESTUDIANTES_POR_MATERIA;
+        List<Materia> materias = datos.materias(cantidadMaterias);
+
+        Resultado resultado = medir(estudiantes, materias);
+
+        resultado.informar("1.000 estudiantes, " + cantidadMaterias + " materias");
+        assertThat(resultado.exitosas).isEqualTo(ESTUDIANTES);
+    }
+
+    // Cada estudiante se inscribe una vez; las materias se asignan en rueda
+    private Resultado medir(List<Estudiante> estudiantes, List<Materia> materias) throws Exception {
+        List<Callable<long[]>> solicitudes = new ArrayList<>();
+        for (int i = 0; i < estudiantes.size(); i++) {
+            Long estudianteId = estudiantes.get(i).getId();
+            Long materiaId = materias.get(i % materias.size()).getId();
+            solicitudes.add(() -> {
+                long inicio = System.nanoTime();
+                boolean exitosa = inscribir(estudianteId, materiaId);
+                return new long[] {System.nanoTime() - inicio, exitosa ? 1 : 0};
+            });
+        }
+        long inicio = System.nanoTime();
+        List<long[]> mediciones = InscripcionConcurrenciaTest.ejecutarALaVez(solicitudes);
+        long total = System.nanoTime() - inicio;
+
+        long[] latencias = mediciones.stream().mapToLong(m -> m[0]).sorted().toArray();
+        long exitosas = mediciones.stream().filter(m -> m[1] == 1).count();
+        return new Resultado(mediciones.size(), exitosas, total, latencias);
+    }
+
+    private boolean inscribir(Long estudianteId, Long materiaId) {
+        try {
+            inscripcionService.crearInscripcion(InscripcionDTO.builder()
+                    .estudianteId(estudianteId)
+                    .materiaId(materiaId)
+                    .periodoAcademico("2024-1")
+                    .usuarioRegistro("benchmark")
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private record Resultado(int solicitudes, long exitosas, long totalNanos, long[] latenciasNanos) {
+
+        void informar(String escenario) {
+            double segundos = totalNanos / 1e9;
+            logger.info(String.format("[contención] %s: %d solicitudes en %.2f s = %.0f solicitudes/s; %d inscripciones creadas"
+                            + " (%.0f/s); latencia p50 %.1f ms, p99 %.1f ms, máx %.1f ms",
+                    escenario, solicitudes, segundos, solicitudes / segundos, exitosas, exitosas / segundos,
+                    percentil(0.50), percentil(0.99), latenciasNanos[latenciasNanos.length - 1] / 1e6));
+        }
+
+        private double percentil(double p) {
+            int indice = (int) Math.ceil(p * latenciasNanos.length) - 1;
+            return latenciasNanos[Math.max(indice, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.universidad.DatosPrueba;
+import com.universidad.PruebaIntegracion;
+import com.universidad.model.Estudiante;
+import com.universidad.model.Inscripcion;
+import com.universidad.model.Materia;
+import com.universidad.repository.EstudianteRepository;
+import com.universidad.repository.InscripcionRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Throughput de inserción masiva (importación de estudiantes, cargas de inscripciones) con los IDs de
+ * secuencia pooled: los INSERT de cada flush salen en lotes JDBC de hibernate.jdbc.batch_size filas.
+ * Se compara con un lote de 1 fila en la misma sesión, que equivale al comportamiento anterior con IDENTITY
+ * (un viaje a la base por INSERT para obtener el ID generado). Cada escenario se ejecuta una vez de
+ * calentamiento y se informan filas por segundo de la siguiente. Los estudiantes y las inscripciones
+ * creados se borran al terminar cada prueba.
+ * Se ejecuta con el perfil de rendimiento: mvn test -Prendimiento -Dtest=InsercionLotesBenchmarkTest
+ */
+@Tag("rendimiento")
+class InsercionLotesBenchmarkTest extends PruebaIntegracion {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsercionLotesBenchmarkTest.class);
+
+    private static final int FILAS = 5_000;
+    private static final int SIN_LOTES = 1;
+
+    @Autowired
+    private EstudianteRepository estudianteRepository;
+
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int tamanoLote;
+
+    // Estudiantes creados por la prueba en curso (unos 20.000 en la de estudiantes), para borrarlos al terminar
+    private final List<Estudiante> creados = new ArrayList<>();
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM inscripcion WHERE usuario_registro = 'benchmark' AND periodo_academico LIKE 'BENCH-%'");
+        estudianteRepository.deleteAllByIdInBatch(creados.stream().map(Estudiante::getId).toList());
+        creados.clear();
+    }
+
+    @Test
+    void estudiantes() {
+        // Cada estudiante son dos INSERT (persona y estudiante, herencia JOINED)
+        comparar("estudiantes", estudianteRepository, i -> {
+            Estudiante estudiante = DatosPrueba.nuevoEstudiante();
+            creados.add(estudiante); // El ID se asigna al guardarlo
+            return estudiante;
+        });
+    }
+
+    @Test
+    void inscripciones() {
+        List<Estudiante> estudiantes = datos.estudiantes(100);
+        creados.addAll(estudiantes);
+        Materia materia = datos.materia();
+        // Estado 'aprobado', para que no cuenten como inscripciones activas ni ocupen cupos
+        comparar("inscripciones", inscripcionRepository, i -> {
+            Inscripcion inscripcion = new Inscripcion();
+            inscripcion.setEstudiante(estudiantes.get(i % estudiantes.size()));
+            inscripcion.setMateria(materia);
+            inscripcion.setFechaInscripcion(LocalDate.now());
+            inscripcion.setEstado("aprobado");
+            inscripcion.setCalificacion(80);
+            inscripcion.setPeriodoAcademico("BENCH-" + DatosPrueba.unico());
+            inscripcion.setUsuarioRegistro("benchmark");
+            return inscripcion;
+        });
+    }
+
+    private <T> void comparar(String entidad, JpaRepository<T, Long> repositorio, IntFunction<T> nueva) {
+        insertar(repositorio, nueva, SIN_LOTES);
+        double sinLotes = insertar(repositorio, nueva, SIN_LOTES);
+        insertar(repositorio, nueva, tamanoLote);
+        double conLotes = insertar(repositorio, nueva, tamanoLote);
+
+        logger.info(String.format("[inserción] %d %s: lote de 1 fila %.0f filas/s; lotes de %d filas %.0f filas/s (x%.1f)",
+                FILAS, entidad, sinLotes, tamanoLote, conLotes, conLotes / sinLotes));
+    }
+
+    // Inserta FILAS entidades en una transacción con el tamaño de lote JDBC indicado; devuelve filas por segundo
+    private <T> double insertar(JpaRepository<T, Long> repositorio, IntFunction<T> nueva, int filasPorLote) {
+        List<T> entidades = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            entidades.add(nueva.apply(i));
+        }
+        long inicio = System.nanoTime();
+        List<T> guardadas = transactionTemplate.execute(estado -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(filasPorLote);
+            return repositorio.saveAllAndFlush(entidades);
+        });
+        long nanos = System.nanoTime() - inicio;
+        assertThat(guardadas).hasSize(FILAS);
+        return FILAS / (nanos / 1e9);
+    }
+}
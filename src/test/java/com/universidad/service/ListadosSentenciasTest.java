@@ -0,0 +1,77 @@
+package com.universidad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+
+import com.universidad.PruebaIntegracion;
+import com.universidad.model.Materia;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Los listados completos de materias y de docentes deben ejecutar el mismo número de sentencias SQL
+ * sin importar cuántas filas devuelven (sin N+1 al mapear prerequisitos ni materias asignadas).
+ * Las sentencias se cuentan con las estadísticas de Hibernate (hibernate.generate_statistics).
+ */
+class ListadosSentenciasTest extends PruebaIntegracion {
+
+    @Autowired
+    private IMateriaService materiaService;
+
+    @Autowired
+    private IDocenteService docenteService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void materiasNoDependeDelNumeroDeFilas() {
+        datos.materias(5);
+        Medicion pocas = medir("materias", materiaService::obtenerTodasLasMaterias);
+
+        datos.materias(200);
+        Medicion muchas = medir("materias", materiaService::obtenerTodasLasMaterias);
+
+        assertThat(muchas.entidades()).isGreaterThan(pocas.entidades());
+        assertThat(muchas.sentencias()).isEqualTo(pocas.sentencias());
+    }
+
+    @Test
+    void docentesNoDependeDelNumeroDeFilas() {
+        List<Materia> materias = datos.materias(4);
+        datos.docente(materias);
+        Medicion pocos = medir("docentes", docenteService::obtenerTodosLosDocentes);
+
+        for (int i = 0; i < 50; i++) {
+            datos.docente(materias.subList(0, 1 + i % materias.size()));
+        }
+        Medicion muchos = medir("docentes", docenteService::obtenerTodosLosDocentes);
+
+        assertThat(muchos.entidades()).isGreaterThan(pocos.entidades());
+        assertThat(muchos.sentencias()).isEqualTo(pocos.sentencias());
+    }
+
+    // Ejecuta el listado sin caches (ni el de Spring ni el de segundo nivel de Hibernate) y cuenta sus sentencias.
+    // Las estadísticas son globales: no hay otras pruebas en paralelo dentro del mismo contexto
+    private Medicion medir(String cache, Runnable listado) {
+        cacheManager.getCache(cache).clear();
+        entityManagerFactory.getCache().evictAll();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        listado.run();
+        return new Medicion(estadisticas.getPrepareStatementCount(), estadisticas.getEntityLoadCount());
+    }
+
+    private record Medicion(long sentencias, long entidades) {
+    }
+}